@@ -0,0 +1,55 @@
+package net.javaguides.ems.jmh;
+
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.entity.Role;
+import net.javaguides.ems.entity.RoleName;
+import net.javaguides.ems.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// Detached entities shaped like what the repositories return on the read paths
+final class BenchmarkData {
+
+    static final String JWT_SECRET = "VotreSecretKeyTresLonguePourJWTQuiDoitFaireAuMoins256BitsDeSecurite2024EquipePro";
+
+    private BenchmarkData() {
+    }
+
+    static Department department(long id) {
+        Department department = new Department();
+        department.setId(id);
+        department.setName("Department " + id);
+        department.setDescription("Description of department " + id);
+        department.setCreatedAt(LocalDateTime.now());
+        department.setUpdatedAt(LocalDateTime.now());
+        return department;
+    }
+
+    static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user" + id)
+                .email("user" + id + "@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z5lY8/3Q6u6f3Ph0p0zWk2hG")
+                .firstName("First" + id)
+                .lastName("Last" + id)
+                .roles(Set.of(new Role(1L, RoleName.ROLE_EMPLOYEE), new Role(2L, RoleName.ROLE_MANAGER)))
+                .enabled(true)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    static Employee employee(long id, Department department, User user) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        employee.setFirstName("First" + id);
+        employee.setLastName("Last" + id);
+        employee.setEmail("employee" + id + "@example.com");
+        employee.setDepartment(department);
+        employee.setUser(user);
+        return employee;
+    }
+}
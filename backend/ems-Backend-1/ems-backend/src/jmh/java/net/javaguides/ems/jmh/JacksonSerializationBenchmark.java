@@ -0,0 +1,47 @@
+package net.javaguides.ems.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Same ObjectMapper defaults as the one Spring Boot uses for GET /api/employees
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    public int employees;
+
+    private ObjectMapper objectMapper;
+    private List<EmployeeDto> employeeDtos;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Department> departments = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            departments.add(BenchmarkData.department(i));
+        }
+        employeeDtos = new ArrayList<>(employees);
+        for (int i = 1; i <= employees; i++) {
+            employeeDtos.add(EmployeeMapper.mapToEmployeeDto(BenchmarkData.employee(i,
+                    departments.get(i % departments.size()), i % 3 == 0 ? BenchmarkData.user(i) : null)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployeeList() throws Exception {
+        return objectMapper.writeValueAsBytes(employeeDtos);
+    }
+}
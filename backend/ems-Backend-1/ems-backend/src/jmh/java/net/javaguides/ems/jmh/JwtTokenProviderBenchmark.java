@@ -0,0 +1,68 @@
+package net.javaguides.ems.jmh;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javaguides.ems.security.JwtTokenProvider;
+import net.javaguides.ems.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// verifiedCacheSize=0 measures the full signature check on every call, 10000 the steady state
+// where the filter sees the same tokens again
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    @Param({"0", "10000"})
+    public long verifiedCacheSize;
+
+    private JwtTokenProvider provider;
+    private Authentication authentication;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        provider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret", BenchmarkData.JWT_SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", 86_400_000L);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", verifiedCacheSize);
+        ReflectionTestUtils.invokeMethod(provider, "init");
+
+        authentication = new UsernamePasswordAuthenticationToken(UserDetailsImpl.build(BenchmarkData.user(1)), null);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            UserDetailsImpl principal = UserDetailsImpl.build(BenchmarkData.user(i));
+            tokens[i] = provider.generateToken(new UsernamePasswordAuthenticationToken(principal, null));
+        }
+    }
+
+    private String nextToken() {
+        next = (next + 1) & (TOKENS - 1);
+        return tokens[next];
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return provider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return provider.validateToken(nextToken());
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return provider.getUsernameFromToken(nextToken());
+    }
+}
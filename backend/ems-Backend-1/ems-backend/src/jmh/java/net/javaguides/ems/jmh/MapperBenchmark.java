@@ -0,0 +1,62 @@
+package net.javaguides.ems.jmh;
+
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.UserDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.entity.User;
+import net.javaguides.ems.mapper.DepartmentMapper;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import net.javaguides.ems.mapper.UserMapper;
+import net.javaguides.ems.security.UserDetailsImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private Department department;
+    private User user;
+    private Employee employee;
+    private Employee employeeWithoutAccount;
+
+    @Setup
+    public void setUp() {
+        department = BenchmarkData.department(1);
+        user = BenchmarkData.user(1);
+        employee = BenchmarkData.employee(1, department, user);
+        employeeWithoutAccount = BenchmarkData.employee(2, department, null);
+    }
+
+    @Benchmark
+    public EmployeeDto mapToEmployeeDto() {
+        return EmployeeMapper.mapToEmployeeDto(employee);
+    }
+
+    @Benchmark
+    public EmployeeDto mapToEmployeeDtoWithoutAccount() {
+        return EmployeeMapper.mapToEmployeeDto(employeeWithoutAccount);
+    }
+
+    @Benchmark
+    public DepartmentDto mapToDepartmentDto() {
+        return DepartmentMapper.mapToDepartmentDto(department, 42);
+    }
+
+    @Benchmark
+    public UserDto mapToUserDto() {
+        return UserMapper.mapToUserDto(user);
+    }
+
+    @Benchmark
+    public UserDetailsImpl buildUserDetails() {
+        return UserDetailsImpl.build(user);
+    }
+}
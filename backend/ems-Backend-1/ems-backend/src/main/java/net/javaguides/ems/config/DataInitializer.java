@@ -6,6 +6,7 @@ import net.javaguides.ems.entity.RoleName;
 import net.javaguides.ems.entity.User;
 import net.javaguides.ems.repository.RoleRepository;
 import net.javaguides.ems.repository.UserRepository;
+import net.javaguides.ems.security.RoleRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -19,6 +20,7 @@ public class DataInitializer implements CommandLineRunner {
     private RoleRepository roleRepository;
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
+    private RoleRegistry roleRegistry;
 
     @Override
     public void run(String... args) throws Exception {
@@ -34,11 +36,11 @@ public class DataInitializer implements CommandLineRunner {
 
             System.out.println("✓ Roles initialized: ADMIN, MANAGER, EMPLOYEE");
         }
+        roleRegistry.refresh();
 
         // Create default admin user if no users exist
         if (userRepository.count() == 0) {
-            Role adminRole = roleRepository.findByName(RoleName.ROLE_ADMIN)
-                    .orElseThrow(() -> new RuntimeException("Admin role not found"));
+            Role adminRole = roleRegistry.get(RoleName.ROLE_ADMIN);
 
             User admin = User.builder()
                     .username("admin")
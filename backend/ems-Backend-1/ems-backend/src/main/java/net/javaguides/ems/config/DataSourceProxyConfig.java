@@ -0,0 +1,34 @@
+package net.javaguides.ems.config;
+
+import net.javaguides.ems.diagnostics.StatementCounter;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Wraps the DataSource so StatementCounter sees every statement. The listener only records while a
+// StatementLog is active on the thread (tests, dev request guard); otherwise it costs one lookup.
+@Configuration
+@ConditionalOnProperty(name = "app.sql.statement-counter.enabled", havingValue = "true", matchIfMissing = true)
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new StatementCounter())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,103 @@
+package net.javaguides.ems.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Hibernate second-level cache regions. Each region is created up front with its own size and TTL
+// (app.cache.regions.<region>.max-size / .ttl); an entity or query pointing at an unknown region
+// fails at startup instead of silently getting an unbounded cache.
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String DEPARTMENTS = "departments";
+    public static final String ROLES = "roles";
+    public static final String USERS = "users";
+    public static final String USER_ROLES = "users.roles";
+    public static final String DEPARTMENTS_BY_NAME = "query.departments-by-name";
+    public static final String ROLES_BY_NAME = "query.roles-by-name";
+    public static final String USERS_BY_USERNAME = "query.users-by-username";
+
+    private static final List<String> REGIONS = List.of(
+            DEPARTMENTS, ROLES, USERS, USER_ROLES, DEPARTMENTS_BY_NAME, ROLES_BY_NAME, USERS_BY_USERNAME);
+
+    // Hibernate's own regions: query results not tied to a named region, and the per-table update
+    // timestamps that invalidate cached queries. The latter must never be evicted before the results.
+    private static final String DEFAULT_QUERY_RESULTS = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    private static final long DEFAULT_MAX_SIZE = 1000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+    // One manager per application context (tests start several in the same JVM)
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("ems-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (String region : REGIONS) {
+            String prefix = "app.cache.regions." + region;
+            createCache(cacheManager, region,
+                    OptionalLong.of(environment.getProperty(prefix + ".max-size", Long.class, DEFAULT_MAX_SIZE)),
+                    OptionalLong.of(environment.getProperty(prefix + ".ttl", Duration.class, DEFAULT_TTL).toNanos()));
+        }
+        createCache(cacheManager, DEFAULT_QUERY_RESULTS, OptionalLong.of(DEFAULT_MAX_SIZE), OptionalLong.of(DEFAULT_TTL.toNanos()));
+        createCache(cacheManager, UPDATE_TIMESTAMPS, OptionalLong.empty(), OptionalLong.empty());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    // Hit ratio per region from Hibernate statistics (hibernate.generate_statistics=true); raw hit/miss/put
+    // counts are also published by the Hibernate binder as hibernate_second_level_cache_requests_total
+    @Bean
+    public MeterBinder hibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> REGIONS.forEach(region ->
+                Gauge.builder("ems.cache.hit.ratio", entityManagerFactory, emf -> hitRatio(emf, region))
+                        .description("Second-level cache hit ratio")
+                        .tag("region", region)
+                        .register(registry));
+    }
+
+    private static double hitRatio(EntityManagerFactory entityManagerFactory, String region) {
+        CacheRegionStatistics statistics = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getCacheRegionStatistics(region);
+        if (statistics == null) {
+            return Double.NaN;
+        }
+        long requests = statistics.getHitCount() + statistics.getMissCount();
+        return requests == 0 ? Double.NaN : (double) statistics.getHitCount() / requests;
+    }
+
+    private static void createCache(CacheManager cacheManager, String name, OptionalLong maxSize, OptionalLong ttlNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores its own immutable entries, copying them on every access would only cost time
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(maxSize);
+        configuration.setExpireAfterWrite(ttlNanos);
+        cacheManager.createCache(name, configuration);
+    }
+}
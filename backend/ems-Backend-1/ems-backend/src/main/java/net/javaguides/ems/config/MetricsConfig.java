@@ -0,0 +1,94 @@
+package net.javaguides.ems.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import net.javaguides.ems.security.JwtTokenProvider;
+import net.javaguides.ems.security.LoginExecutor;
+import net.javaguides.ems.security.PasswordHashExecutor;
+import net.javaguides.ems.security.UserPrincipalCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+// Application meters on top of what Actuator binds itself (HTTP server requests, HikariCP, Hibernate
+// statistics, JVM). Everything is scraped from /actuator/prometheus.
+@Configuration
+public class MetricsConfig {
+
+    // Enables @Timed on service implementations
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder securityCacheMetrics(UserPrincipalCache userPrincipalCache, JwtTokenProvider jwtTokenProvider) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, userPrincipalCache.cache(), "principals");
+            CaffeineCacheMetrics.monitor(registry, jwtTokenProvider.verifiedTokens(), "verified-tokens");
+        };
+    }
+
+    @Bean
+    public MeterBinder loginExecutorMetrics(LoginExecutor loginExecutor) {
+        return registry -> {
+            FunctionCounter.builder("ems.login.requests", loginExecutor, LoginExecutor::getAcceptedCount)
+                    .description("Login verifications admitted to the pool")
+                    .tag("outcome", "accepted")
+                    .register(registry);
+            FunctionCounter.builder("ems.login.requests", loginExecutor, LoginExecutor::getRejectedCount)
+                    .description("Login verifications rejected because the pool was saturated")
+                    .tag("outcome", "rejected")
+                    .register(registry);
+            FunctionCounter.builder("ems.login.queue.wait", loginExecutor,
+                            executor -> executor.getTotalQueueWaitNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .description("Total time login verifications waited for a pool thread")
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("ems.login.verification", loginExecutor,
+                            executor -> executor.getTotalVerificationNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                    .description("Total time spent verifying credentials")
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("ems.login.active", loginExecutor, LoginExecutor::getActiveCount)
+                    .description("Login verifications running")
+                    .register(registry);
+            Gauge.builder("ems.login.queued", loginExecutor, LoginExecutor::getQueueSize)
+                    .description("Login verifications waiting for a pool thread")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder passwordHashExecutorMetrics(PasswordHashExecutor passwordHashExecutor) {
+        return registry -> {
+            Gauge.builder("ems.password.hash.active", passwordHashExecutor, PasswordHashExecutor::getActiveCount)
+                    .description("Bulk-write password hashes running")
+                    .register(registry);
+            Gauge.builder("ems.password.hash.queued", passwordHashExecutor, PasswordHashExecutor::getQueueSize)
+                    .description("Bulk-write password hashes waiting for a pool thread")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder changeEventMetrics(ChangeEventBroadcaster changeEventBroadcaster) {
+        return registry -> {
+            Gauge.builder("ems.events.subscribers", changeEventBroadcaster, ChangeEventBroadcaster::getSubscriberCount)
+                    .description("Open /api/events connections")
+                    .register(registry);
+            FunctionCounter.builder("ems.events.published", changeEventBroadcaster, ChangeEventBroadcaster::getPublishedCount)
+                    .description("Change events published after commit")
+                    .register(registry);
+            FunctionCounter.builder("ems.events.dropped.subscribers", changeEventBroadcaster, ChangeEventBroadcaster::getDroppedSubscriberCount)
+                    .description("Subscribers disconnected because their buffer was full")
+                    .register(registry);
+        };
+    }
+}
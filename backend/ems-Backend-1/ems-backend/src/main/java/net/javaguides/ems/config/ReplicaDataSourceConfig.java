@@ -0,0 +1,86 @@
+package net.javaguides.ems.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.javaguides.ems.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Primary + read replicas behind one DataSource, replacing the auto-configured pool when
+// app.datasource.replicas.enabled=true. The pools are not beans of their own, so the statement
+// counting proxy (DataSourceProxyConfig) wraps only the routing DataSource and counts each statement once.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, MeterRegistry meterRegistry,
+                                               @Value("${app.datasource.replicas.urls}") List<String> replicaUrls,
+                                               @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String replicaUsername,
+                                               @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String replicaPassword,
+                                               @Value("${app.datasource.replicas.selection:round-robin}") ReplicaRoutingDataSource.Selection selection,
+                                               @Value("${app.datasource.replicas.read-your-writes-window:5s}") Duration readYourWritesWindow) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = pool(binder, meterRegistry, ReplicaRoutingDataSource.PRIMARY, properties.determineUrl(),
+                properties.determineUsername(), properties.determinePassword());
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = pool(binder, meterRegistry, "replica-" + (replicas.size() + 1), url.trim(),
+                    replicaUsername, replicaPassword);
+            // Optional replica-only pool settings on top of spring.datasource.hikari.*
+            binder.bind("app.datasource.replicas.hikari", Bindable.ofInstance(replica));
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, selection, readYourWritesWindow, ReplicaDataSourceConfig::currentUsername);
+    }
+
+    // The bean itself may be wrapped by the statement counting proxy, hence the unwrap
+    @Bean
+    public MeterBinder replicaRoutingMetrics(DataSource dataSource) throws SQLException {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        return registry -> routing.getTargets().forEach(target ->
+                FunctionCounter.builder("ems.datasource.routed", routing, ds -> ds.getRoutedCount(target))
+                        .description("Connections handed out, by target database")
+                        .tag("target", target)
+                        .register(registry));
+    }
+
+    // Same pool settings as the auto-configured one (spring.datasource.hikari.*), with hikaricp_* metrics per pool
+    private static HikariDataSource pool(Binder binder, MeterRegistry meterRegistry, String name, String url,
+                                         String username, String password) {
+        HikariDataSource pool = new HikariDataSource();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMetricRegistry(meterRegistry);
+        return pool;
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
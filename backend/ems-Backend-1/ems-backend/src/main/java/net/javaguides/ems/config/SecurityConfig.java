@@ -1,7 +1,10 @@
 package net.javaguides.ems.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.security.JwtAuthenticationFilter;
+import net.javaguides.ems.security.TimedPasswordEncoder;
 import net.javaguides.ems.security.UserDetailsServiceImpl;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -25,10 +28,11 @@ public class SecurityConfig {
 
     private UserDetailsServiceImpl userDetailsService;
     private JwtAuthenticationFilter jwtAuthenticationFilter;
+    private MeterRegistry meterRegistry;
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
     }
 
     @Bean
@@ -51,6 +55,13 @@ public class SecurityConfig {
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/**").permitAll()
+                // Error dispatches carry no JWT; without this every 404/412 from a controller is turned into a 403
+                .requestMatchers("/error").permitAll()
+                // Completion of an SSE stream (/api/events) is an async re-dispatch of a request already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Metrics expose JVM, pool and SQL internals: only health is public
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/users/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
@@ -4,7 +4,10 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.dto.JwtResponse;
 import net.javaguides.ems.dto.LoginRequest;
+import net.javaguides.ems.exception.ServiceOverloadedException;
 import net.javaguides.ems.service.AuthService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -20,4 +23,12 @@ public class AuthController {
         JwtResponse response = authService.login(loginRequest);
         return ResponseEntity.ok(response);
     }
+
+    // Login pool saturated: fail fast and tell the client when to come back
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<String> handleOverload(ServiceOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
 }
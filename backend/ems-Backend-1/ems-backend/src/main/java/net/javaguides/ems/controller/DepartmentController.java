@@ -1,13 +1,25 @@
 package net.javaguides.ems.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import net.javaguides.ems.dto.ChangeSetDto;
 import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.ExportFormat;
+import net.javaguides.ems.dto.ReassignEmployeesRequest;
+import net.javaguides.ems.dto.ReassignResultDto;
+import net.javaguides.ems.dto.ResourceVersion;
+import net.javaguides.ems.service.ChangeFeedService;
 import net.javaguides.ems.service.DepartmentService;
+import net.javaguides.ems.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -16,6 +28,8 @@ import java.util.List;
 public class DepartmentController {
 
     private DepartmentService departmentService;
+    private ExportService exportService;
+    private ChangeFeedService changeFeedService;
 
     // Create Department REST API
     @PostMapping
@@ -28,17 +42,46 @@ public class DepartmentController {
     // Get Department by ID REST API
     @GetMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
-    public ResponseEntity<DepartmentDto> getDepartmentById(@PathVariable("id") Long departmentId) {
+    public ResponseEntity<DepartmentDto> getDepartmentById(@PathVariable("id") Long departmentId, WebRequest request) {
+        ResourceVersion version = departmentService.getDepartmentVersion(departmentId);
+        if (request.checkNotModified(version.getEtag())) {
+            return null;
+        }
         DepartmentDto departmentDto = departmentService.getDepartmentById(departmentId);
-        return ResponseEntity.ok(departmentDto);
+        return ResponseEntity.ok().eTag(version.getEtag()).body(departmentDto);
     }
 
     // Get All Departments REST API
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
-    public ResponseEntity<List<DepartmentDto>> getAllDepartments() {
+    public ResponseEntity<List<DepartmentDto>> getAllDepartments(WebRequest request) {
+        // 304 costs one aggregate query and no entity loading
+        ResourceVersion version = departmentService.getDepartmentsVersion();
+        if (request.checkNotModified(version.getEtag())) {
+            return null;
+        }
         List<DepartmentDto> departments = departmentService.getAllDepartments();
-        return ResponseEntity.ok(departments);
+        return ResponseEntity.ok().eTag(version.getEtag()).body(departments);
+    }
+
+    // Delta-sync Departments REST API: rows changed and ids deleted since the token
+    @GetMapping("changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<ChangeSetDto<DepartmentDto>> getDepartmentChanges(@RequestParam(value = "since", required = false) String since,
+                                                                            @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(changeFeedService.getDepartmentChanges(since, limit));
+    }
+
+    // Export Departments REST API (streamed CSV or NDJSON)
+    @GetMapping("export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public void exportDepartments(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                  HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("departments." + exportFormat.getExtension()).build().toString());
+        exportService.exportDepartments(exportFormat, response.getOutputStream());
     }
 
     // Update Department REST API
@@ -46,11 +89,28 @@ public class DepartmentController {
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<DepartmentDto> updateDepartment(
             @PathVariable("id") Long departmentId,
-            @RequestBody DepartmentDto updatedDepartment) {
-        DepartmentDto departmentDto = departmentService.updateDepartment(departmentId, updatedDepartment);
+            @RequestBody DepartmentDto updatedDepartment,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        DepartmentDto departmentDto = departmentService.updateDepartment(departmentId, updatedDepartment, ifMatch);
         return ResponseEntity.ok(departmentDto);
     }
 
+    // Move all (or the listed) employees of a department to another one, in a single statement
+    @PostMapping("{id}/reassign")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ReassignResultDto> reassignEmployees(@PathVariable("id") Long departmentId,
+                                                               @RequestBody ReassignEmployeesRequest request) {
+        return ResponseEntity.ok(departmentService.reassignEmployees(departmentId, request));
+    }
+
+    // Move every employee to the target department, then delete the source
+    @PostMapping("{id}/merge-into/{targetId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ReassignResultDto> mergeInto(@PathVariable("id") Long departmentId,
+                                                       @PathVariable("targetId") Long targetDepartmentId) {
+        return ResponseEntity.ok(departmentService.mergeInto(departmentId, targetDepartmentId));
+    }
+
     // Delete Department REST API
     @DeleteMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
@@ -1,13 +1,30 @@
 package net.javaguides.ems.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
+import net.javaguides.ems.dto.BatchResultDto;
+import net.javaguides.ems.dto.ChangeSetDto;
+import net.javaguides.ems.dto.EmployeeBatchUpdateDto;
 import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.EmployeePageDto;
+import net.javaguides.ems.dto.ExportFormat;
+import net.javaguides.ems.dto.ImportResultDto;
+import net.javaguides.ems.dto.ResourceVersion;
+import net.javaguides.ems.service.ChangeFeedService;
+import net.javaguides.ems.service.EmployeeBatchService;
+import net.javaguides.ems.service.EmployeeImportService;
 import net.javaguides.ems.service.EmployeeService;
+import net.javaguides.ems.service.ExportService;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -16,6 +33,10 @@ import java.util.List;
 public class EmployeeController {
 
     private EmployeeService employeeService;
+    private EmployeeImportService employeeImportService;
+    private EmployeeBatchService employeeBatchService;
+    private ExportService exportService;
+    private ChangeFeedService changeFeedService;
 
     //Build Add Employee Rest API
     @PostMapping
@@ -25,27 +46,107 @@ public class EmployeeController {
         return  new ResponseEntity<>(savedEmployee, HttpStatus.CREATED);
     }
 
+    //Build bulk import Employees Rest API (streamed CSV or NDJSON body)
+    @PostMapping(value = "import", consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ImportResultDto> importEmployeesCsv(InputStream body){
+        return ResponseEntity.ok(employeeImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "import", consumes = "application/x-ndjson")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<ImportResultDto> importEmployeesNdjson(InputStream body){
+        return ResponseEntity.ok(employeeImportService.importNdjson(body));
+    }
+
+    //Build batch Employees RestAPIs (up to 1000 operations in one transaction, one result per item)
+    @PostMapping("batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BatchResultDto> createEmployees(@RequestBody List<EmployeeDto> employees){
+        return ResponseEntity.ok(employeeBatchService.createEmployees(employees));
+    }
+
+    @PutMapping("batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BatchResultDto> updateEmployees(@RequestBody List<EmployeeBatchUpdateDto> employees){
+        return ResponseEntity.ok(employeeBatchService.updateEmployees(employees));
+    }
+
+    @DeleteMapping("batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<BatchResultDto> deleteEmployees(@RequestBody List<Long> employeeIds){
+        return ResponseEntity.ok(employeeBatchService.deleteEmployees(employeeIds));
+    }
+
     //Build get Empployee Restt Api
     @GetMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
-    public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable("id") long employeeId){
+    public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable("id") long employeeId, WebRequest request){
+        // Validators are read first so a write racing with this request can only make the ETag older than the body
+        ResourceVersion version = employeeService.getEmployeeVersion(employeeId);
+        if (request.checkNotModified(version.getEtag(), version.getLastModified())) {
+            return null;
+        }
         EmployeeDto employeeDto = employeeService.getEmployeeById(employeeId);
-        return ResponseEntity.ok(employeeDto);
+        return ResponseEntity.ok().eTag(version.getEtag()).body(employeeDto);
     }
 
     //Build get ALL Employees restAPi
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
-    public  ResponseEntity<List<EmployeeDto>> getAllEmployees(){
+    public  ResponseEntity<List<EmployeeDto>> getAllEmployees(WebRequest request){
+        ResourceVersion version = employeeService.getEmployeesVersion();
+        if (request.checkNotModified(version.getEtag())) {
+            return null;
+        }
         List<EmployeeDto> employees = employeeService.getAllEmployee();
-        return  ResponseEntity.ok(employees);
+        return  ResponseEntity.ok().eTag(version.getEtag()).body(employees);
+    }
+
+    //Build get Employees page (keyset pagination) restAPi
+    @GetMapping("page")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<EmployeePageDto> getEmployeePage(@RequestParam(value = "after", required = false) String after,
+                                                           @RequestParam(value = "size", defaultValue = "50") int size){
+        EmployeePageDto page = employeeService.getEmployeePage(after, size);
+        return ResponseEntity.ok(page);
+    }
+
+    //Build search Employees restAPi
+    @GetMapping("search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<List<EmployeeDto>> searchEmployees(@RequestParam("q") String query,
+                                                             @RequestParam(value = "limit", defaultValue = "20") int limit){
+        List<EmployeeDto> employees = employeeService.searchEmployees(query, limit);
+        return ResponseEntity.ok(employees);
+    }
+
+    //Build delta-sync Employees restAPi: rows changed and ids deleted since the token
+    @GetMapping("changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<ChangeSetDto<EmployeeDto>> getEmployeeChanges(@RequestParam(value = "since", required = false) String since,
+                                                                        @RequestParam(value = "limit", defaultValue = "1000") int limit){
+        return ResponseEntity.ok(changeFeedService.getEmployeeChanges(since, limit));
+    }
+
+    //Build export Employees restAPi (streamed CSV or NDJSON)
+    @GetMapping("export")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public void exportEmployees(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.from(format);
+        response.setContentType(exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("employees." + exportFormat.getExtension()).build().toString());
+        exportService.exportEmployees(exportFormat, response.getOutputStream());
     }
 
     //Build update Employee RestAPI
     @PutMapping("{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
-    public ResponseEntity<EmployeeDto> updateEmployee(@PathVariable("id") Long employeeId ,@RequestBody EmployeeDto updatedEmployee){
-        EmployeeDto employeeDto = employeeService.updateEmployee(employeeId,updatedEmployee);
+    public ResponseEntity<EmployeeDto> updateEmployee(@PathVariable("id") Long employeeId ,@RequestBody EmployeeDto updatedEmployee,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        EmployeeDto employeeDto = employeeService.updateEmployee(employeeId,updatedEmployee, ifMatch);
         return ResponseEntity.ok(employeeDto);
 
     }
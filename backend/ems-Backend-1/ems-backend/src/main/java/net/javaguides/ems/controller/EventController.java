@@ -0,0 +1,26 @@
+package net.javaguides.ems.controller;
+
+import lombok.AllArgsConstructor;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@AllArgsConstructor
+public class EventController {
+
+    private ChangeEventBroadcaster changeEventBroadcaster;
+
+    // Server-Sent Events stream of committed employee, department and (for admins) user changes
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public SseEmitter subscribe(Authentication authentication) {
+        return changeEventBroadcaster.subscribe(authentication);
+    }
+}
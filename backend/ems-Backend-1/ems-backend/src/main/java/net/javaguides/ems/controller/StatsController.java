@@ -0,0 +1,25 @@
+package net.javaguides.ems.controller;
+
+import lombok.AllArgsConstructor;
+import net.javaguides.ems.dto.StatsDto;
+import net.javaguides.ems.service.StatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+@AllArgsConstructor
+public class StatsController {
+
+    private StatsService statsService;
+
+    // Get Dashboard Statistics REST API
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'EMPLOYEE')")
+    public ResponseEntity<StatsDto> getStats() {
+        return ResponseEntity.ok(statsService.getStats());
+    }
+}
@@ -3,12 +3,15 @@ package net.javaguides.ems.controller;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.dto.CreateUserRequest;
+import net.javaguides.ems.dto.ResourceVersion;
 import net.javaguides.ems.dto.UserDto;
 import net.javaguides.ems.service.UserService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -35,15 +38,21 @@ public class UserController {
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long id, WebRequest request) {
+        // The ETag doubles as the If-Match value for updates
+        ResourceVersion version = userService.getUserVersion(id);
+        if (request.checkNotModified(version.getEtag())) {
+            return null;
+        }
         UserDto userDto = userService.getUserById(id);
-        return ResponseEntity.ok(userDto);
+        return ResponseEntity.ok().eTag(version.getEtag()).body(userDto);
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody UserDto userDto) {
-        UserDto updated = userService.updateUser(id, userDto);
+    public ResponseEntity<UserDto> updateUser(@PathVariable Long id, @RequestBody UserDto userDto,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserDto updated = userService.updateUser(id, userDto, ifMatch);
         return ResponseEntity.ok(updated);
     }
 
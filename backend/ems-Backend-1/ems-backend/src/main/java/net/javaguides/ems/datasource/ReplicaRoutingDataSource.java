@@ -0,0 +1,135 @@
+package net.javaguides.ems.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import net.javaguides.ems.util.TransactionUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Sends @Transactional(readOnly = true) work to a replica and everything else to the primary.
+// The connection is only fetched at the first statement (lazy proxy), once Spring has published the
+// transaction's read-only flag; Hibernate and the transaction manager otherwise grab it in begin().
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    public static final String PRIMARY = "primary";
+
+    public enum Selection { ROUND_ROBIN, LEAST_CONNECTIONS }
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas = new LinkedHashMap<>();
+    private final List<String> replicaKeys;
+    private final Selection selection;
+    private final Supplier<String> sessionKey;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Map<String, LongAdder> routed = new LinkedHashMap<>();
+
+    // Sessions (usernames) that committed a write recently: their reads stay on the primary until
+    // replication has had time to catch up, so a user always sees their own changes
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Selection selection,
+                                    Duration readYourWritesWindow, Supplier<String> sessionKey) {
+        this.primary = primary;
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.put("replica-" + (i + 1), replicas.get(i));
+        }
+        this.replicaKeys = new ArrayList<>(this.replicas.keySet());
+        this.selection = selection;
+        this.sessionKey = sessionKey;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(readYourWritesWindow).build();
+
+        routed.put(PRIMARY, new LongAdder());
+        replicaKeys.forEach(key -> routed.put(key, new LongAdder()));
+
+        Router router = new Router();
+        Map<Object, Object> targets = new LinkedHashMap<>(this.replicas);
+        targets.put(PRIMARY, primary);
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    public List<String> getTargets() {
+        return List.copyOf(routed.keySet());
+    }
+
+    public long getRoutedCount(String target) {
+        return routed.get(target).sum();
+    }
+
+    String route() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        String session = sessionKey.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (session != null) {
+                TransactionUtils.afterCommit(() -> recentWriters.put(session, Boolean.TRUE));
+            }
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || (session != null && recentWriters.getIfPresent(session) != null)) {
+            return PRIMARY;
+        }
+        return selection == Selection.LEAST_CONNECTIONS ? leastBusyReplica() : nextReplica();
+    }
+
+    private String nextReplica() {
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    // Falls back to round-robin for pools that do not expose their active connection count
+    private String leastBusyReplica() {
+        String best = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String key : replicaKeys) {
+            if (!(replicas.get(key) instanceof HikariDataSource hikari) || hikari.getHikariPoolMXBean() == null) {
+                return nextReplica();
+            }
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            if (pool.getActiveConnections() < fewest) {
+                fewest = pool.getActiveConnections();
+                best = key;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    private class Router extends AbstractRoutingDataSource {
+        @Override
+        protected Object determineCurrentLookupKey() {
+            String target = route();
+            routed.get(target).increment();
+            return target;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package net.javaguides.ems.diagnostics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+// datasource-proxy listener that feeds the StatementLog active on the calling thread, if any.
+// A JDBC batch counts as one statement per SQL string, since it is one round trip.
+public class StatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<StatementLog> CURRENT = new ThreadLocal<>();
+
+    public static StatementLog start() {
+        return start(new StatementLog());
+    }
+
+    public static StatementLog start(StatementLog log) {
+        log.previous = CURRENT.get();
+        CURRENT.set(log);
+        return log;
+    }
+
+    public static StatementLog stop() {
+        StatementLog log = CURRENT.get();
+        if (log == null) {
+            return null;
+        }
+        if (log.previous != null) {
+            CURRENT.set(log.previous);
+            log.previous = null;
+        } else {
+            CURRENT.remove();
+        }
+        return log;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementLog log = CURRENT.get();
+        if (log == null) {
+            return;
+        }
+        for (QueryInfo queryInfo : queryInfoList) {
+            for (StatementLog target = log; target != null; target = target.previous) {
+                target.record(queryInfo.getQuery());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package net.javaguides.ems.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Dev-profile N+1 detector: warns when one HTTP request runs more statements than allowed or repeats
+// the same statement shape too often. The logged stack trace points at the code that issued the
+// statement crossing the threshold (typically a lazy association touched in a loop).
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "app.sql.request-guard.enabled", havingValue = "true")
+public class StatementGuardFilter extends OncePerRequestFilter {
+
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    public StatementGuardFilter(@Value("${app.sql.request-guard.max-statements:20}") int maxStatements,
+                                @Value("${app.sql.request-guard.max-repeats:5}") int maxRepeats) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        StatementCounter.start(new StatementLog(maxStatements, maxRepeats));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            StatementLog statements = StatementCounter.stop();
+            String target = request.getMethod() + " " + request.getRequestURI();
+            if (statements.tooManyStatementsAt() != null) {
+                log.warn("{} ran {} SQL statements (limit {})", target, statements.count(), maxStatements,
+                        statements.tooManyStatementsAt());
+            }
+            if (statements.repeatedStatementAt() != null) {
+                log.warn("{} repeated the same SQL statement {} times (limit {}), possible N+1: {}", target,
+                        statements.shapes().get(statements.repeatedShape()), maxRepeats, statements.repeatedShape(),
+                        statements.repeatedStatementAt());
+            }
+        }
+    }
+}
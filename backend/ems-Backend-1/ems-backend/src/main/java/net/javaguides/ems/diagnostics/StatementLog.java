@@ -0,0 +1,91 @@
+package net.javaguides.ems.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+// SQL statements executed on one thread between StatementCounter.start() and stop(). Statements are
+// also grouped by shape (literals and IN-list lengths removed) so repeated per-row queries stand out.
+// With thresholds set, the call stack of the statement that first crosses each one is captured.
+public class StatementLog {
+
+    private static final int MAX_RECORDED_STATEMENTS = 200;
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+
+    private final int maxStatements;
+    private final int maxRepeats;
+    private final List<String> statements = new ArrayList<>();
+    private final Map<String, Integer> shapes = new HashMap<>();
+    private int count;
+    private Throwable tooManyStatementsAt;
+    private Throwable repeatedStatementAt;
+    private String repeatedShape;
+
+    StatementLog previous;
+
+    public StatementLog() {
+        this(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    public StatementLog(int maxStatements, int maxRepeats) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    void record(String sql) {
+        count++;
+        if (statements.size() < MAX_RECORDED_STATEMENTS) {
+            statements.add(sql);
+        }
+        String shape = shape(sql);
+        int repeats = shapes.merge(shape, 1, Integer::sum);
+        if (count > maxStatements && tooManyStatementsAt == null) {
+            tooManyStatementsAt = new Throwable("Statement #" + count + ": " + sql);
+        }
+        if (repeats > maxRepeats && repeatedStatementAt == null) {
+            repeatedShape = shape;
+            repeatedStatementAt = new Throwable("Repetition #" + repeats + ": " + sql);
+        }
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public List<String> statements() {
+        return Collections.unmodifiableList(statements);
+    }
+
+    public Map<String, Integer> shapes() {
+        return Collections.unmodifiableMap(shapes);
+    }
+
+    public int maxRepeats() {
+        return shapes.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+    }
+
+    public Throwable tooManyStatementsAt() {
+        return tooManyStatementsAt;
+    }
+
+    public Throwable repeatedStatementAt() {
+        return repeatedStatementAt;
+    }
+
+    public String repeatedShape() {
+        return repeatedShape;
+    }
+
+    static String shape(String sql) {
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = STRING_LITERAL.matcher(shape).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?)");
+    }
+}
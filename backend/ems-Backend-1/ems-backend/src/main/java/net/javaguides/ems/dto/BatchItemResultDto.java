@@ -0,0 +1,19 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Outcome of one operation of a batch: index in the request, HTTP-like status, and the resulting employee on success
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDto {
+    private int index;
+    private Long id;
+    private int status;
+    private String error;
+    private EmployeeDto employee;
+}
@@ -0,0 +1,21 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDto {
+    private int processed;
+    private int succeeded;
+    private int failed;
+    private long durationMs;
+    private List<BatchItemResultDto> results = new ArrayList<>();
+}
@@ -0,0 +1,23 @@
+package net.javaguides.ems.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One change pushed on /api/events. action is created, updated or deleted, with data holding the new
+// representation (absent on delete); "invalidated" means a bulk change happened and lists should be reloaded.
+// previousDepartmentId lets clients adjust per-department employee counts when an employee moves or goes away.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeEventDto {
+    private String entity;
+    private String action;
+    private Long id;
+    private Object data;
+    private Long previousDepartmentId;
+}
@@ -0,0 +1,19 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeSetDto<T> {
+    private List<T> upserted;
+    private List<Long> deleted;
+    private String nextToken;  // pass back as ?since= for the following changes
+    private boolean hasMore;   // true when the limit was reached: call again right away with nextToken
+}
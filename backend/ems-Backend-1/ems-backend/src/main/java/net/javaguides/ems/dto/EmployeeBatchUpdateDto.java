@@ -0,0 +1,21 @@
+package net.javaguides.ems.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One item of PUT /api/employees/batch: the employee fields plus, optionally, the ETag the client read it with
+// (same value as GET /api/employees/{id}), checked like the If-Match header of the single-item update
+@Getter
+@Setter
+@NoArgsConstructor
+public class EmployeeBatchUpdateDto extends EmployeeDto {
+    private String ifMatch;
+
+    public EmployeeBatchUpdateDto(EmployeeDto employee, String ifMatch) {
+        super(employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getEmail(),
+                employee.getDepartmentId(), employee.getDepartmentName(), employee.getUsername(),
+                employee.getPassword(), employee.getRoles());
+        this.ifMatch = ifMatch;
+    }
+}
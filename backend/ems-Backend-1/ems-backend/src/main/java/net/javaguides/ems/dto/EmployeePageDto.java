@@ -0,0 +1,18 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePageDto {
+    private List<EmployeeDto> content;
+    private int size;
+    private String nextCursor;  // null when this is the last page
+}
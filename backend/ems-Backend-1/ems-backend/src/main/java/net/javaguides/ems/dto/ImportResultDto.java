@@ -0,0 +1,22 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDto {
+    private long processed;
+    private long imported;
+    private long failed;
+    private long durationMs;
+    private List<ImportErrorDto> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+}
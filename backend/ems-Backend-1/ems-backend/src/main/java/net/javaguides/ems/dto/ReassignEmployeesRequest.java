@@ -0,0 +1,19 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignEmployeesRequest {
+    private Long targetDepartmentId;
+
+    // Optional subset of the department's employees; null moves all of them
+    private List<Long> employeeIds;
+}
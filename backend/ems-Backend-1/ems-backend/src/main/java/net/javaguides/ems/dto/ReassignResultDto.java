@@ -0,0 +1,17 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReassignResultDto {
+    private Long sourceDepartmentId;
+    private Long targetDepartmentId;
+    private int movedEmployees;
+    private boolean sourceDeleted;
+}
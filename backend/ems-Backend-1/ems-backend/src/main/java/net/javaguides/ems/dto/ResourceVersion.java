@@ -0,0 +1,57 @@
+package net.javaguides.ems.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+// Validators for a conditional GET: a strong ETag and, when it is exact, a Last-Modified time (-1 when absent)
+@Getter
+@AllArgsConstructor
+public class ResourceVersion {
+    private String etag;
+    private long lastModified;
+
+    // The ETag is a digest of the parts, so row counts and ids are not exposed to clients
+    public static ResourceVersion of(long lastModified, Object... parts) {
+        StringBuilder raw = new StringBuilder();
+        for (Object part : parts) {
+            raw.append(part).append('|');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.toString().getBytes(StandardCharsets.UTF_8));
+            return new ResourceVersion(HexFormat.of().formatHex(hash, 0, 16), lastModified);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // If-Match uses strong comparison: weak validators never match, "*" matches any existing resource
+    public boolean matches(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return true;
+        }
+        String quoted = '"' + etag + '"';
+        for (String candidate : ifMatch.split(",")) {
+            if (candidate.trim().equals(quoted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static long toEpochMilli(LocalDateTime... timestamps) {
+        long latest = -1;
+        for (LocalDateTime timestamp : timestamps) {
+            if (timestamp != null) {
+                latest = Math.max(latest, timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        }
+        return latest;
+    }
+}
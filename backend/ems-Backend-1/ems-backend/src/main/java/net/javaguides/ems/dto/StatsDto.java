@@ -0,0 +1,19 @@
+package net.javaguides.ems.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StatsDto {
+    private long totalEmployees;
+    private long departmentCount;
+    private long assignedEmployees;
+    private long unassignedEmployees;
+    private List<DepartmentStatDto> departments;
+    private List<EmployeeDto> recentEmployees;
+}
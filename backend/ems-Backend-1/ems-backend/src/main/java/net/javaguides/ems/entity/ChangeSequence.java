@@ -0,0 +1,33 @@
+package net.javaguides.ems.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Single-row counter behind the delta-sync feed. Writers increment it right before committing and hold
+// its row lock until the commit, so change numbers become visible in increasing order.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "change_sequence")
+public class ChangeSequence {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    // Tombstones up to this change number have been purged: older sync tokens can no longer be served
+    @Column(name = "pruned_through", nullable = false)
+    private long prunedThrough;
+}
@@ -0,0 +1,45 @@
+package net.javaguides.ems.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Read side of the employee directory: one flat row per employee holding exactly what EmployeeDto
+// exposes, so list, detail and page reads are single-table queries. Written only by
+// EmployeeDirectoryProjector, in the same transaction as the change it reflects.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "employee_directory", indexes = {
+    @Index(name = "idx_employee_directory_last_name_id", columnList = "last_name, id"),
+    @Index(name = "idx_employee_directory_department_id", columnList = "department_id"),
+    @Index(name = "idx_employee_directory_change_seq", columnList = "change_seq")
+})
+public class EmployeeDirectoryEntry {
+
+    // Same id as the employee
+    @Id
+    private Long id;
+
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    private String departmentName;
+    private String username;
+
+    // Comma-separated role names, null when the employee has no account
+    @Column(length = 200)
+    private String roles;
+
+    // Copied from the employee stamp: count and max(change_seq) make the list validator
+    @Column(name = "change_seq", nullable = false)
+    private long changeSeq;
+}
@@ -2,6 +2,9 @@ package net.javaguides.ems.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import net.javaguides.ems.config.HibernateCacheConfig;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
@@ -10,6 +13,9 @@ import lombok.*;
 @Builder
 @Entity
 @Table(name = "roles")
+// Seeded once and never updated, but READ_ONLY is not usable: Hibernate 6.3 re-puts entities it reads
+// through a collection batch load as an update, which a read-only region rejects
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLES)
 public class Role {
 
     @Id
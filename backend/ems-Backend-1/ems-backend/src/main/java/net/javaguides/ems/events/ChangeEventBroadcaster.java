@@ -0,0 +1,219 @@
+package net.javaguides.ems.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import net.javaguides.ems.dto.ChangeEventDto;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.UserDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static net.javaguides.ems.util.TransactionUtils.afterCommit;
+
+// Fan-out of committed changes to /api/events subscribers. Publishing only serializes the event once and
+// offers it to each subscriber's bounded queue; a per-subscriber task drains the queue into its SSE
+// connection, so a slow client never blocks the writer or other clients. A client whose queue fills up
+// is disconnected and resynchronizes by reloading when it reconnects.
+@Slf4j
+@Component
+public class ChangeEventBroadcaster {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String DEPARTMENT = "department";
+    public static final String USER = "user";
+
+    // Same audiences as the corresponding GET endpoints
+    private static final Set<String> ALL_ROLES = Set.of("ROLE_ADMIN", "ROLE_MANAGER", "ROLE_EMPLOYEE");
+    private static final Set<String> ADMIN_ONLY = Set.of("ROLE_ADMIN");
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final Duration timeout;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder publishedEvents = new LongAdder();
+    private final LongAdder droppedSubscribers = new LongAdder();
+
+    public ChangeEventBroadcaster(ObjectMapper objectMapper,
+                                  @Value("${app.events.buffer-size:256}") int bufferSize,
+                                  @Value("${app.events.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+    }
+
+    public SseEmitter subscribe(Authentication authentication) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet()));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> {
+            subscribers.remove(subscriber);
+            emitter.complete();
+        });
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Tells the client the stream is live; after a reconnect it reloads to cover the gap
+        subscriber.offer(new Frame("ready", "{}", null));
+        return subscriber.emitter;
+    }
+
+    public void employeeCreatedAfterCommit(EmployeeDto employee) {
+        publishAfterCommit(new ChangeEventDto(EMPLOYEE, "created", employee.getId(), employee, null), ALL_ROLES);
+    }
+
+    public void employeeUpdatedAfterCommit(EmployeeDto employee, Long previousDepartmentId) {
+        publishAfterCommit(new ChangeEventDto(EMPLOYEE, "updated", employee.getId(), employee, previousDepartmentId), ALL_ROLES);
+    }
+
+    public void employeeDeletedAfterCommit(Long employeeId, Long previousDepartmentId) {
+        publishAfterCommit(new ChangeEventDto(EMPLOYEE, "deleted", employeeId, null, previousDepartmentId), ALL_ROLES);
+    }
+
+    public void departmentSavedAfterCommit(DepartmentDto department, boolean created) {
+        publishAfterCommit(new ChangeEventDto(DEPARTMENT, created ? "created" : "updated", department.getId(), department, null), ALL_ROLES);
+    }
+
+    public void departmentDeletedAfterCommit(Long departmentId) {
+        publishAfterCommit(new ChangeEventDto(DEPARTMENT, "deleted", departmentId, null, null), ALL_ROLES);
+    }
+
+    public void userSavedAfterCommit(UserDto user, boolean created) {
+        publishAfterCommit(new ChangeEventDto(USER, created ? "created" : "updated", user.getId(), user, null), ADMIN_ONLY);
+    }
+
+    public void userDeletedAfterCommit(Long userId) {
+        publishAfterCommit(new ChangeEventDto(USER, "deleted", userId, null, null), ADMIN_ONLY);
+    }
+
+    // Bulk changes (imports, batches, reorganizations) are not replayed row by row
+    public void employeesInvalidatedAfterCommit() {
+        publishAfterCommit(new ChangeEventDto(EMPLOYEE, "invalidated", null, null, null), ALL_ROLES);
+        publishAfterCommit(new ChangeEventDto(DEPARTMENT, "invalidated", null, null, null), ALL_ROLES);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return publishedEvents.sum();
+    }
+
+    public long getDroppedSubscriberCount() {
+        return droppedSubscribers.sum();
+    }
+
+    private void publishAfterCommit(ChangeEventDto event, Set<String> audience) {
+        afterCommit(() -> publish(event, audience));
+    }
+
+    private void publish(ChangeEventDto event, Set<String> audience) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {} {} event", event.getEntity(), event.getAction(), e);
+            return;
+        }
+        publishedEvents.increment();
+        Frame frame = new Frame(event.getEntity(), json, null);
+        for (Subscriber subscriber : subscribers) {
+            if (!Collections.disjoint(subscriber.roles, audience)) {
+                subscriber.offer(frame);
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and detects clients that went away
+    @Scheduled(fixedRateString = "${app.events.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        Frame ping = new Frame(null, null, "ping");
+        subscribers.forEach(subscriber -> subscriber.offer(ping));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private record Frame(String name, String data, String comment) {
+
+        SseEmitter.SseEventBuilder toEvent() {
+            SseEmitter.SseEventBuilder event = SseEmitter.event();
+            if (comment != null) {
+                return event.comment(comment);
+            }
+            return event.name(name).data(data);
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Set<String> roles;
+        private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<String> roles) {
+            this.emitter = emitter;
+            this.roles = roles;
+        }
+
+        void offer(Frame frame) {
+            if (!queue.offer(frame)) {
+                if (subscribers.remove(this)) {
+                    droppedSubscribers.increment();
+                    emitter.complete();
+                }
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        // At most one drain task per subscriber, so frames are written in order
+        @Override
+        public void run() {
+            try {
+                Frame frame;
+                while ((frame = queue.poll()) != null) {
+                    emitter.send(frame.toEvent());
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client gone or emitter already completed
+                subscribers.remove(this);
+                queue.clear();
+            } finally {
+                draining.set(false);
+            }
+            if (!queue.isEmpty() && subscribers.contains(this) && draining.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+    }
+}
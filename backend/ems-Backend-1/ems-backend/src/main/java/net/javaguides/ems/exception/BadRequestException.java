@@ -0,0 +1,11 @@
+package net.javaguides.ems.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class BadRequestException extends RuntimeException{
+    public  BadRequestException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package net.javaguides.ems.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The tombstones a sync token would need have been purged: the client has to start over without a token
+@ResponseStatus(value = HttpStatus.GONE)
+public class SyncTokenExpiredException extends RuntimeException{
+    public  SyncTokenExpiredException(String message){
+        super(message);
+    }
+}
@@ -5,14 +5,15 @@ import net.javaguides.ems.entity.Department;
 
 public class DepartmentMapper {
 
-    public static DepartmentDto mapToDepartmentDto(Department department) {
+    // The employee count comes from a count query so the lazy employees collection is never initialized
+    public static DepartmentDto mapToDepartmentDto(Department department, long employeeCount) {
         return new DepartmentDto(
             department.getId(),
             department.getName(),
             department.getDescription(),
             department.getCreatedAt(),
             department.getUpdatedAt(),
-            department.getEmployees() != null ? department.getEmployees().size() : 0
+            (int) employeeCount
         );
     }
 
@@ -2,8 +2,10 @@ package net.javaguides.ems.mapper;
 
 import net.javaguides.ems.dto.EmployeeDto;
 import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.entity.EmployeeDirectoryEntry;
 import net.javaguides.ems.entity.Role;
 
+import java.util.Arrays;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -24,6 +26,36 @@ public class EmployeeMapper {
         );
     }
 
+    public static EmployeeDirectoryEntry mapToDirectoryEntry(Employee employee, long changeSeq) {
+        EmployeeDto dto = mapToEmployeeDto(employee);
+        return new EmployeeDirectoryEntry(
+            dto.getId(),
+            dto.getFirstName(),
+            dto.getLastName(),
+            dto.getEmail(),
+            dto.getDepartmentId(),
+            dto.getDepartmentName(),
+            dto.getUsername(),
+            dto.getRoles() != null ? dto.getRoles().stream().sorted().collect(Collectors.joining(",")) : null,
+            changeSeq
+        );
+    }
+
+    public static EmployeeDto mapToEmployeeDto(EmployeeDirectoryEntry entry) {
+        return new EmployeeDto(
+            entry.getId(),
+            entry.getFirstName(),
+            entry.getLastName(),
+            entry.getEmail(),
+            entry.getDepartmentId(),
+            entry.getDepartmentName(),
+            entry.getUsername(),
+            null,
+            entry.getRoles() == null ? null : entry.getRoles().isEmpty() ? Set.of()
+                : Arrays.stream(entry.getRoles().split(",")).collect(Collectors.toSet())
+        );
+    }
+
     public static Employee maptoEmployee(EmployeeDto employeeDto){
         Employee employee = new Employee();
         employee.setId(employeeDto.getId());
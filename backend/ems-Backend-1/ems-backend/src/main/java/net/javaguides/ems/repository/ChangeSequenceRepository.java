@@ -0,0 +1,27 @@
+package net.javaguides.ems.repository;
+
+import net.javaguides.ems.entity.ChangeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequence, Long> {
+
+    // Takes the row lock until the transaction ends
+    @Modifying
+    @Query("update ChangeSequence c set c.lastSeq = c.lastSeq + 1 where c.id = " + ChangeSequence.ID)
+    int increment();
+
+    @Query("select c.lastSeq from ChangeSequence c where c.id = " + ChangeSequence.ID)
+    long findLastSeq();
+
+    @Query("select c.prunedThrough from ChangeSequence c where c.id = " + ChangeSequence.ID)
+    Optional<Long> findPrunedThrough();
+
+    @Modifying
+    @Query("update ChangeSequence c set c.prunedThrough = :seq where c.id = " + ChangeSequence.ID + " and c.prunedThrough < :seq")
+    int advancePrunedThrough(@Param("seq") long seq);
+}
@@ -0,0 +1,7 @@
+package net.javaguides.ems.repository;
+
+// Projection for "employees per department" aggregates; departmentId is null for unassigned employees
+public interface DepartmentEmployeeCount {
+    Long getDepartmentId();
+    long getEmployeeCount();
+}
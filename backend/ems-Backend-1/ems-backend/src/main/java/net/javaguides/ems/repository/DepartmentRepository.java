@@ -1,11 +1,81 @@
 package net.javaguides.ems.repository;
 
+import jakarta.persistence.QueryHint;
+import net.javaguides.ems.config.HibernateCacheConfig;
 import net.javaguides.ems.entity.Department;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.DEPARTMENTS_BY_NAME)})
     Optional<Department> findByName(String name);
     boolean existsByName(String name);
+
+    // Delta-sync stamp, written by ChangeTracker right before commit
+    @Modifying(flushAutomatically = true)
+    @Query("update Department d set d.changeSeq = :seq where d.id in :ids")
+    int stampChangeSeq(@Param("ids") Collection<Long> ids, @Param("seq") long seq);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Department d set d.changeSeq = :seq where d.changeSeq = :placeholder")
+    int restampChangeSeq(@Param("placeholder") long placeholder, @Param("seq") long seq);
+
+    @Query("select d from Department d " +
+           "where d.changeSeq > :seq or (d.changeSeq = :seq and d.id > :id) " +
+           "order by d.changeSeq asc, d.id asc")
+    List<Department> findChangesAfter(@Param("seq") long seq, @Param("id") long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select d.id as id, d.name as name, d.description as description, count(e.id) as employeeCount " +
+           "from Department d left join d.employees e group by d.id, d.name, d.description order by d.id")
+    Stream<DepartmentExportRow> streamForExport();
+
+    interface DepartmentExportRow {
+        Long getId();
+        String getName();
+        String getDescription();
+        long getEmployeeCount();
+    }
+
+    // Change validators for conditional GETs. Employee counts are part of the representation, so the
+    // employee side (count, ids, versions) is folded in: a move between departments bumps a version.
+    // Each side is aggregated on its own table; over a join every department would count once per employee.
+    @Query("select count(d) as departmentCount, coalesce(max(d.id), 0) as maxId, coalesce(sum(d.version), 0) as versionSum, " +
+           "(select count(e) from Employee e where e.department is not null) as employeeCount, " +
+           "(select coalesce(max(e.id), 0) from Employee e where e.department is not null) as maxEmployeeId, " +
+           "(select coalesce(sum(e.version), 0) from Employee e where e.department is not null) as employeeVersionSum " +
+           "from Department d")
+    DepartmentListVersion findListVersion();
+
+    @Query("select d.version as version, count(e.id) as employeeCount " +
+           "from Department d left join d.employees e where d.id = :id group by d.id, d.version")
+    Optional<DepartmentVersion> findVersionById(@Param("id") Long id);
+
+    interface DepartmentListVersion {
+        long getDepartmentCount();
+        long getMaxId();
+        long getVersionSum();
+        long getEmployeeCount();
+        long getMaxEmployeeId();
+        long getEmployeeVersionSum();
+    }
+
+    interface DepartmentVersion {
+        Long getVersion();
+        long getEmployeeCount();
+    }
 }
@@ -0,0 +1,50 @@
+package net.javaguides.ems.repository;
+
+import net.javaguides.ems.entity.EmployeeDirectoryEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+// Single-table reads of the denormalized directory; see EmployeeDirectoryEntry
+public interface EmployeeDirectoryRepository extends JpaRepository<EmployeeDirectoryEntry, Long> {
+
+    // Keyset pagination on (lastName, id): MySQL sorts NULL last names first,
+    // so a page that ends on a NULL last name continues with findPageAfterNullLastName.
+    @Query("select e from EmployeeDirectoryEntry e order by e.lastName asc, e.id asc")
+    List<EmployeeDirectoryEntry> findFirstPage(Pageable pageable);
+
+    @Query("select e from EmployeeDirectoryEntry e " +
+           "where e.lastName > :lastName or (e.lastName = :lastName and e.id > :id) " +
+           "order by e.lastName asc, e.id asc")
+    List<EmployeeDirectoryEntry> findPageAfter(@Param("lastName") String lastName, @Param("id") Long id, Pageable pageable);
+
+    @Query("select e from EmployeeDirectoryEntry e " +
+           "where e.lastName is not null or e.id > :id " +
+           "order by e.lastName asc, e.id asc")
+    List<EmployeeDirectoryEntry> findPageAfterNullLastName(@Param("id") Long id, Pageable pageable);
+
+    // Every change restamps the rows it touches with a higher change_seq and deletions lower the count,
+    // so these two values move whenever the list representation does
+    @Query("select count(e) as employeeCount, coalesce(max(e.changeSeq), 0) as maxChangeSeq from EmployeeDirectoryEntry e")
+    DirectoryVersion findListVersion();
+
+    interface DirectoryVersion {
+        long getEmployeeCount();
+        long getMaxChangeSeq();
+    }
+
+    @Modifying(flushAutomatically = true)
+    @Query("update EmployeeDirectoryEntry e set e.departmentName = " +
+           "(select d.name from Department d where d.id = e.departmentId), e.changeSeq = :seq " +
+           "where e.departmentId in :departmentIds")
+    int refreshDepartmentNames(@Param("departmentIds") Collection<Long> departmentIds, @Param("seq") long seq);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update EmployeeDirectoryEntry e set e.changeSeq = :seq where e.changeSeq = :placeholder")
+    int restampChangeSeq(@Param("placeholder") long placeholder, @Param("seq") long seq);
+}
@@ -1,8 +1,144 @@
 package net.javaguides.ems.repository;
 
+import jakarta.persistence.QueryHint;
+import net.javaguides.ems.entity.Department;
 import net.javaguides.ems.entity.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface EmployeeRepository  extends JpaRepository<Employee,Long> {
 
+    @EntityGraph(attributePaths = {"department", "user", "user.roles"})
+    Optional<Employee> findWithDetailsById(Long id);
+
+    // Batch targets in one statement, with what EmployeeMapper touches
+    @EntityGraph(attributePaths = {"department", "user", "user.roles"})
+    List<Employee> findWithDetailsByIdIn(Collection<Long> ids);
+
+    @Query("select e.department.id as departmentId, count(e) as employeeCount from Employee e group by e.department.id")
+    List<DepartmentEmployeeCount> countByDepartment();
+
+    @EntityGraph(attributePaths = {"department", "user"})
+    List<Employee> findTop5ByOrderByIdDesc();
+
+    long countByDepartmentId(Long departmentId);
+
+    @Query("select e.email from Employee e where e.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select e.id as id, e.email as email from Employee e where e.email in :emails")
+    List<EmployeeIdView> findIdsByEmailIn(@Param("emails") Collection<String> emails);
+
+    interface EmployeeIdView {
+        Long getId();
+        String getEmail();
+    }
+
+    boolean existsByDepartmentId(Long departmentId);
+
+    // Directory rebuild: ids in keyset pages, each page then loaded with findWithDetailsByIdIn
+    @Query("select e.id from Employee e where e.id > :id order by e.id asc")
+    List<Long> findIdsAfter(@Param("id") long id, Pageable pageable);
+
+    // Same shape as the directory's validator, so the two tables can be compared at startup
+    @Query("select count(e) as employeeCount, coalesce(max(e.changeSeq), 0) as maxChangeSeq from Employee e")
+    EmployeeDirectoryRepository.DirectoryVersion findDirectoryVersion();
+
+    @Query("select e.id from Employee e where e.department = :department")
+    List<Long> findIdsByDepartment(@Param("department") Department department);
+
+    @Query("select e.id from Employee e where e.department = :department and e.id in :ids")
+    List<Long> findIdsByDepartmentAndIdIn(@Param("department") Department department, @Param("ids") Collection<Long> ids);
+
+    // Set-based department moves: one statement whatever the number of employees. Bulk updates bypass
+    // @Version, so the version is bumped here to keep ETags and If-Match checks valid.
+    @Modifying(flushAutomatically = true)
+    @Query("update Employee e set e.department = :target, e.version = e.version + 1, e.updatedAt = :now " +
+           "where e.department = :source")
+    int moveAllToDepartment(@Param("source") Department source, @Param("target") Department target,
+                            @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Employee e set e.department = :target, e.version = e.version + 1, e.updatedAt = :now " +
+           "where e.department = :source and e.id in :ids")
+    int moveToDepartment(@Param("source") Department source, @Param("target") Department target,
+                         @Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Delta-sync stamps, written by ChangeTracker right before commit
+    @Modifying(flushAutomatically = true)
+    @Query("update Employee e set e.changeSeq = :seq where e.id in :ids")
+    int stampChangeSeq(@Param("ids") Collection<Long> ids, @Param("seq") long seq);
+
+    // Swaps ChangeTracker's placeholder for the real number, found through the (change_seq, id) index
+    @Modifying(flushAutomatically = true)
+    @Query("update Employee e set e.changeSeq = :seq where e.changeSeq = :placeholder")
+    int restampChangeSeq(@Param("placeholder") long placeholder, @Param("seq") long seq);
+
+    // Every employee row embeds its department name, so a rename changes all of them
+    @Modifying(flushAutomatically = true)
+    @Query("update Employee e set e.changeSeq = :seq where e.department.id in :departmentIds")
+    int stampChangeSeqByDepartment(@Param("departmentIds") Collection<Long> departmentIds, @Param("seq") long seq);
+
+    // Delta-sync feed: keyset on (changeSeq, id). Only the to-one associations are fetched: a collection
+    // fetch join would force in-memory pagination, so user roles come from hibernate.default_batch_fetch_size.
+    @EntityGraph(attributePaths = {"department", "user"})
+    @Query("select e from Employee e " +
+           "where e.changeSeq > :seq or (e.changeSeq = :seq and e.id > :id) " +
+           "order by e.changeSeq asc, e.id asc")
+    List<Employee> findChangesAfter(@Param("seq") long seq, @Param("id") long id, Pageable pageable);
+
+    @Query("select e.department.id as departmentId, count(e) as employeeCount from Employee e " +
+           "where e.department.id in :departmentIds group by e.department.id")
+    List<DepartmentEmployeeCount> countByDepartmentIdIn(@Param("departmentIds") Collection<Long> departmentIds);
+
+    // Forward-only scalar rows for exports: nothing enters the persistence context, and the fetch size
+    // lets the driver stream (MySQL needs useCursorFetch=true) instead of buffering the whole result
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.id as id, e.firstName as firstName, e.lastName as lastName, e.email as email, " +
+           "d.id as departmentId, d.name as departmentName, u.username as username " +
+           "from Employee e left join e.department d left join e.user u order by e.id")
+    Stream<EmployeeExportRow> streamForExport();
+
+    interface EmployeeExportRow {
+        Long getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+        Long getDepartmentId();
+        String getDepartmentName();
+        String getUsername();
+    }
+
+    // Change validator for conditional GETs of one employee, read as scalars without hydrating any entity.
+    // Built from the entity versions so it matches the If-Match check on update; the list validator is
+    // read from the directory (EmployeeDirectoryRepository.findListVersion).
+    @Query("select e.version as version, d.id as departmentId, d.version as departmentVersion, " +
+           "u.id as userId, u.version as userVersion, e.updatedAt as employeeModified, " +
+           "d.updatedAt as departmentModified, u.updatedAt as userModified " +
+           "from Employee e left join e.department d left join e.user u where e.id = :id")
+    Optional<EmployeeVersion> findVersionById(@Param("id") Long id);
+
+    interface EmployeeVersion {
+        Long getVersion();
+        Long getDepartmentId();
+        Long getDepartmentVersion();
+        Long getUserId();
+        Long getUserVersion();
+        LocalDateTime getEmployeeModified();
+        LocalDateTime getDepartmentModified();
+        LocalDateTime getUserModified();
+    }
 }
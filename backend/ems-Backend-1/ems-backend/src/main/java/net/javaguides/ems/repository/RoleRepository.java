@@ -1,13 +1,21 @@
 package net.javaguides.ems.repository;
 
+import jakarta.persistence.QueryHint;
+import net.javaguides.ems.config.HibernateCacheConfig;
 import net.javaguides.ems.entity.Role;
 import net.javaguides.ems.entity.RoleName;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.ROLES_BY_NAME)})
     Optional<Role> findByName(RoleName name);
 }
@@ -0,0 +1,34 @@
+package net.javaguides.ems.repository;
+
+import net.javaguides.ems.entity.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    // Same (changeSeq, id) keyset as the live rows of the feed
+    @Query("select t from Tombstone t where t.entityType = :type " +
+           "and (t.changeSeq > :seq or (t.changeSeq = :seq and t.entityId > :id)) " +
+           "order by t.changeSeq asc, t.entityId asc")
+    List<Tombstone> findChangesAfter(@Param("type") String type, @Param("seq") long seq, @Param("id") long id, Pageable pageable);
+
+    @Query("select max(t.changeSeq) from Tombstone t where t.deletedAt < :cutoff")
+    Optional<Long> findMaxChangeSeqDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Negative numbers are placeholders of transactions that have not committed yet
+    @Modifying
+    @Query("delete from Tombstone t where t.changeSeq > 0 and t.changeSeq <= :seq")
+    int deleteThrough(@Param("seq") long seq);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Tombstone t set t.changeSeq = :seq where t.entityType in :types and t.changeSeq = :placeholder")
+    int restampChangeSeq(@Param("types") Collection<String> types, @Param("placeholder") long placeholder, @Param("seq") long seq);
+}
@@ -1,15 +1,53 @@
 package net.javaguides.ems.repository;
 
+import jakarta.persistence.QueryHint;
+import net.javaguides.ems.config.HibernateCacheConfig;
 import net.javaguides.ems.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Used by every login and principal-cache miss; the id comes from the query cache, the user and
+    // roles from the entity and collection regions
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = HINT_CACHE_REGION, value = HibernateCacheConfig.USERS_BY_USERNAME)})
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    // The inverse employee side cannot be lazy, so it is joined here instead of one select per user
+    @Override
+    @EntityGraph(attributePaths = {"roles", "employee"})
+    List<User> findAll();
+
+    // Set-based existence checks used by bulk operations
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.id as id, u.username as username from User u where u.username in :usernames")
+    List<UserIdView> findIdsByUsernameIn(@Param("usernames") Collection<String> usernames);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    interface UserIdView {
+        Long getId();
+        String getUsername();
+    }
 }
@@ -0,0 +1,326 @@
+package net.javaguides.ems.search;
+
+import lombok.RequiredArgsConstructor;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import net.javaguides.ems.repository.EmployeeDirectoryRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static net.javaguides.ems.util.TransactionUtils.afterCommit;
+
+// In-memory index over employee, department and user name fields: prefix matches come from a sorted
+// token map, substrings from a trigram map and typos from trigram-filtered edit distance.
+@Component
+@RequiredArgsConstructor
+public class EmployeeSearchIndex {
+
+    private static final int EXACT_SCORE = 4;
+    private static final int PREFIX_SCORE = 3;
+    private static final int SUBSTRING_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    private final EmployeeDirectoryRepository employeeDirectoryRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedEmployee> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> tokenIndex = new TreeMap<>();
+    private final Map<String, Set<String>> trigramIndex = new HashMap<>();
+
+    private record IndexedEmployee(EmployeeDto employee, Set<String> tokens) {}
+
+    // The directory is read under the write lock: an after-commit update arriving meanwhile waits and is
+    // applied on top of the rebuilt index instead of being wiped by clear()
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            List<EmployeeDto> employees = employeeDirectoryRepository.findAll().stream()
+                    .map(EmployeeMapper::mapToEmployeeDto)
+                    .collect(Collectors.toList());
+            documents.clear();
+            tokenIndex.clear();
+            trigramIndex.clear();
+            employees.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Index changes are applied after the surrounding transaction commits, so a rollback never leaks into search results
+    public void indexAfterCommit(EmployeeDto employee) {
+        afterCommit(() -> index(employee));
+    }
+
+    public void removeAfterCommit(Long employeeId) {
+        afterCommit(() -> remove(employeeId));
+    }
+
+    public void renameDepartmentAfterCommit(Long departmentId, String departmentName) {
+        afterCommit(() -> renameDepartment(departmentId, departmentName));
+    }
+
+    // employeeIds limits the move to a subset of the department, null moves all of it
+    public void moveDepartmentAfterCommit(Long fromDepartmentId, Collection<Long> employeeIds, Long toDepartmentId, String toDepartmentName) {
+        afterCommit(() -> moveDepartment(fromDepartmentId, employeeIds, toDepartmentId, toDepartmentName));
+    }
+
+    public void index(EmployeeDto employee) {
+        lock.writeLock().lock();
+        try {
+            delete(employee.getId());
+            put(copyOf(employee));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long employeeId) {
+        lock.writeLock().lock();
+        try {
+            delete(employeeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void renameDepartment(Long departmentId, String departmentName) {
+        lock.writeLock().lock();
+        try {
+            List<EmployeeDto> affected = documents.values().stream()
+                    .map(IndexedEmployee::employee)
+                    .filter(e -> departmentId.equals(e.getDepartmentId()))
+                    .toList();
+            for (EmployeeDto employee : affected) {
+                delete(employee.getId());
+                employee.setDepartmentName(departmentName);
+                put(employee);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void moveDepartment(Long fromDepartmentId, Collection<Long> employeeIds, Long toDepartmentId, String toDepartmentName) {
+        lock.writeLock().lock();
+        try {
+            List<EmployeeDto> affected = documents.values().stream()
+                    .map(IndexedEmployee::employee)
+                    .filter(e -> fromDepartmentId.equals(e.getDepartmentId()))
+                    .filter(e -> employeeIds == null || employeeIds.contains(e.getId()))
+                    .toList();
+            for (EmployeeDto employee : affected) {
+                delete(employee.getId());
+                employee.setDepartmentId(toDepartmentId);
+                employee.setDepartmentName(toDepartmentName);
+                put(employee);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<EmployeeDto> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = match(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    // Every term has to match: keep the intersection and add up the scores
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> copyOf(documents.get(entry.getKey()).employee()))
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> match(String term) {
+        Map<Long, Integer> scores = new HashMap<>();
+
+        // Exact and prefix matches come straight from the sorted token map
+        for (Map.Entry<String, Set<Long>> entry : tokenIndex.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            int score = entry.getKey().equals(term) ? EXACT_SCORE : PREFIX_SCORE;
+            entry.getValue().forEach(id -> scores.merge(id, score, Math::max));
+        }
+
+        if (term.length() < 3) {
+            return scores;
+        }
+
+        List<String> termTrigrams = trigrams(term);
+        int maxEdits = term.length() <= 5 ? 1 : 2;
+        // q-gram lemma: a token within k edits shares at least |trigrams| - 3k trigrams with the term
+        int minSharedTrigrams = Math.max(1, termTrigrams.size() - 3 * maxEdits);
+
+        Map<String, Integer> sharedTrigrams = new HashMap<>();
+        for (String trigram : termTrigrams) {
+            Set<String> tokens = trigramIndex.get(trigram);
+            if (tokens != null) {
+                tokens.forEach(token -> sharedTrigrams.merge(token, 1, Integer::sum));
+            }
+        }
+
+        for (Map.Entry<String, Integer> candidate : sharedTrigrams.entrySet()) {
+            String token = candidate.getKey();
+            int score;
+            if (candidate.getValue() >= termTrigrams.size() && token.contains(term)) {
+                score = SUBSTRING_SCORE;
+            } else if (candidate.getValue() >= minSharedTrigrams && withinEditDistance(term, token, maxEdits)) {
+                score = FUZZY_SCORE;
+            } else {
+                continue;
+            }
+            tokenIndex.getOrDefault(token, Set.of()).forEach(id -> scores.merge(id, score, Math::max));
+        }
+        return scores;
+    }
+
+    private void put(EmployeeDto employee) {
+        Set<String> tokens = new HashSet<>();
+        tokens.addAll(tokenize(employee.getFirstName()));
+        tokens.addAll(tokenize(employee.getLastName()));
+        tokens.addAll(tokenize(employee.getEmail()));
+        tokens.addAll(tokenize(employee.getDepartmentName()));
+        tokens.addAll(tokenize(employee.getUsername()));
+        if (employee.getEmail() != null) {
+            tokens.add(normalize(employee.getEmail()));
+        }
+        if (employee.getId() != null) {
+            tokens.add(employee.getId().toString());
+        }
+
+        documents.put(employee.getId(), new IndexedEmployee(employee, tokens));
+        for (String token : tokens) {
+            tokenIndex.computeIfAbsent(token, t -> new HashSet<>()).add(employee.getId());
+            for (String trigram : trigrams(token)) {
+                trigramIndex.computeIfAbsent(trigram, t -> new HashSet<>()).add(token);
+            }
+        }
+    }
+
+    private void delete(Long employeeId) {
+        IndexedEmployee removed = documents.remove(employeeId);
+        if (removed == null) {
+            return;
+        }
+        for (String token : removed.tokens()) {
+            Set<Long> ids = tokenIndex.get(token);
+            if (ids == null) {
+                continue;
+            }
+            ids.remove(employeeId);
+            if (ids.isEmpty()) {
+                // Last document using this token: drop it from the trigram map as well
+                tokenIndex.remove(token);
+                for (String trigram : trigrams(token)) {
+                    Set<String> tokens = trigramIndex.get(trigram);
+                    if (tokens != null) {
+                        tokens.remove(token);
+                        if (tokens.isEmpty()) {
+                            trigramIndex.remove(trigram);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static EmployeeDto copyOf(EmployeeDto employee) {
+        return new EmployeeDto(
+                employee.getId(),
+                employee.getFirstName(),
+                employee.getLastName(),
+                employee.getEmail(),
+                employee.getDepartmentId(),
+                employee.getDepartmentName(),
+                employee.getUsername(),
+                null,
+                employee.getRoles() != null ? new HashSet<>(employee.getRoles()) : null
+        );
+    }
+
+    private static List<String> tokenize(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(normalize(value).split("[^\\p{Alnum}]+"))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String normalize(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+
+    private static List<String> trigrams(String token) {
+        if (token.length() < 3) {
+            return List.of();
+        }
+        List<String> trigrams = new ArrayList<>(token.length() - 2);
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            trigrams.add(token.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    // Banded Levenshtein: only cells within maxEdits of the diagonal are computed
+    private static boolean withinEditDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            Arrays.fill(current, maxEdits + 1);
+            current[0] = i;
+            int from = Math.max(1, i - maxEdits);
+            int to = Math.min(b.length(), i + maxEdits);
+            int rowMin = current[0];
+            for (int j = from; j <= to; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()] <= maxEdits;
+    }
+}
@@ -0,0 +1,111 @@
+package net.javaguides.ems.security;
+
+import jakarta.annotation.PreDestroy;
+import net.javaguides.ems.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Runs password verification (BCrypt) on a small dedicated pool so a burst of logins cannot
+// occupy every Tomcat worker. When both the pool and its queue are full, callers are turned
+// away immediately instead of waiting.
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder verificationNanos = new LongAdder();
+
+    public LoginExecutor(@Value("${app.auth.login.max-concurrency:4}") int maxConcurrency,
+                         @Value("${app.auth.login.queue-capacity:50}") int queueCapacity,
+                         @Value("${app.auth.login.timeout:10s}") Duration timeout,
+                         @Value("${app.auth.login.retry-after-seconds:1}") long retryAfterSeconds,
+                         @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        // The pool size, not the thread kind, bounds concurrent BCrypt work, so virtual threads are safe here
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("login-", 1).factory()
+                : Thread.ofPlatform().name("login-", 1).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeout = timeout;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public <T> T execute(Supplier<T> verification) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                queueWaitNanos.add(startedAt - submittedAt);
+                try {
+                    return verification.get();
+                } finally {
+                    verificationNanos.add(System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Too many concurrent login attempts, please retry shortly", retryAfterSeconds);
+        }
+        accepted.increment();
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceOverloadedException("Login verification timed out, please retry shortly", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceOverloadedException("Login verification interrupted", retryAfterSeconds);
+        }
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    public long getTotalQueueWaitNanos() {
+        return queueWaitNanos.sum();
+    }
+
+    public long getTotalVerificationNanos() {
+        return verificationNanos.sum();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
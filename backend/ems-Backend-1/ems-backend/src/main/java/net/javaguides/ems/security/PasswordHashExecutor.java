@@ -0,0 +1,85 @@
+package net.javaguides.ems.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+// Hashes the passwords of bulk writes (imports, batch creates) on a small dedicated pool shared by all
+// callers, so concurrent uploads cannot take over the common ForkJoinPool or every CPU. The queue is bounded:
+// once it is full the submitting request hashes the password itself, which slows it down instead of letting
+// concurrent imports pile up chunk after chunk of pending tasks.
+@Component
+public class PasswordHashExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final PasswordEncoder passwordEncoder;
+
+    public PasswordHashExecutor(PasswordEncoder passwordEncoder,
+                                @Value("${app.import.hash-concurrency:2}") int maxConcurrency,
+                                @Value("${app.import.hash-queue-capacity:1000}") int queueCapacity,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("password-hash-", 1).factory()
+                : Thread.ofPlatform().name("password-hash-", 1).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(
+                maxConcurrency, maxConcurrency,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                PasswordHashExecutor::runInCaller);
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    // Returns the hashes in the order of the given passwords
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            futures.add(executor.submit(() -> passwordEncoder.encode(rawPassword)));
+        }
+
+        List<String> hashes = new ArrayList<>(futures.size());
+        try {
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Password hashing interrupted", e);
+        }
+    }
+
+    // CallerRunsPolicy, except that after shutdown it fails instead of dropping the task, whose future
+    // would otherwise never complete
+    private static void runInCaller(Runnable task, ThreadPoolExecutor executor) {
+        if (executor.isShutdown()) {
+            throw new RejectedExecutionException("Password hashing pool is shut down");
+        }
+        task.run();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,47 @@
+package net.javaguides.ems.security;
+
+import lombok.RequiredArgsConstructor;
+import net.javaguides.ems.entity.Role;
+import net.javaguides.ems.entity.RoleName;
+import net.javaguides.ems.repository.RoleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+// Roles are reference data seeded by DataInitializer and never edited at runtime, so they are
+// loaded once into an immutable EnumMap and write paths resolve role names without a query.
+@Component
+@RequiredArgsConstructor
+public class RoleRegistry {
+
+    private final RoleRepository roleRepository;
+
+    private volatile Map<RoleName, Role> roles = Collections.emptyMap();
+
+    public synchronized void refresh() {
+        Map<RoleName, Role> loaded = new EnumMap<>(RoleName.class);
+        roleRepository.findAll().forEach(role -> loaded.put(role.getName(), role));
+        roles = Collections.unmodifiableMap(loaded);
+    }
+
+    public Role get(RoleName name) {
+        Role role = roles.get(name);
+        if (role == null) {
+            // Not loaded yet or added since the last refresh
+            refresh();
+            role = roles.get(name);
+        }
+        if (role == null) {
+            throw new RuntimeException("Role not found: " + name);
+        }
+        return role;
+    }
+
+    public Set<Role> resolve(Collection<String> roleNames) {
+        Set<Role> resolved = new HashSet<>();
+        for (String roleName : roleNames) {
+            resolved.add(get(RoleName.valueOf(roleName)));
+        }
+        return resolved;
+    }
+}
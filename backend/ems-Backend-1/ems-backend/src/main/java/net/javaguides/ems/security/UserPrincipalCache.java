@@ -0,0 +1,65 @@
+package net.javaguides.ems.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+import static net.javaguides.ems.util.TransactionUtils.afterCommit;
+
+// Caches the UserDetailsImpl built for each authenticated request so the JWT filter does not
+// reload the user and its roles on every call. Account changes evict entries explicitly; employee writes
+// never touch the users row or its roles, so they leave the cache alone.
+@Component
+public class UserPrincipalCache {
+
+    private final UserDetailsServiceImpl userDetailsService;
+    private final Cache<String, UserDetailsImpl> cache;
+
+    public UserPrincipalCache(UserDetailsServiceImpl userDetailsService,
+                              @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${app.security.principal-cache.ttl:60s}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public UserDetailsImpl get(String username) {
+        return cache.get(username, key -> (UserDetailsImpl) userDetailsService.loadUserByUsername(key));
+    }
+
+    public void invalidate(String username) {
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    // Evicting after commit keeps a concurrent request from re-caching the pre-update state
+    public void invalidateAfterCommit(String username) {
+        if (username != null) {
+            afterCommit(() -> cache.invalidate(username));
+        }
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public Cache<String, UserDetailsImpl> cache() {
+        return cache;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
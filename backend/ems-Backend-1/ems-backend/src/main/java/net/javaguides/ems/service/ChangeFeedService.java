@@ -0,0 +1,13 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.ChangeSetDto;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+
+public interface ChangeFeedService {
+    // Rows written and deleted after the since token, oldest change first; no token means a full sync
+    ChangeSetDto<EmployeeDto> getEmployeeChanges(String since, int limit);
+    ChangeSetDto<DepartmentDto> getDepartmentChanges(String since, int limit);
+
+    void purgeTombstones();
+}
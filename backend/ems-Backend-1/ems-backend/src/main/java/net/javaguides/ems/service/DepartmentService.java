@@ -1,6 +1,9 @@
 package net.javaguides.ems.service;
 
 import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.ReassignEmployeesRequest;
+import net.javaguides.ems.dto.ReassignResultDto;
+import net.javaguides.ems.dto.ResourceVersion;
 
 import java.util.List;
 
@@ -8,6 +11,10 @@ public interface DepartmentService {
     DepartmentDto createDepartment(DepartmentDto departmentDto);
     DepartmentDto getDepartmentById(Long departmentId);
     List<DepartmentDto> getAllDepartments();
-    DepartmentDto updateDepartment(Long departmentId, DepartmentDto updatedDepartment);
+    ResourceVersion getDepartmentsVersion();
+    ResourceVersion getDepartmentVersion(Long departmentId);
+    DepartmentDto updateDepartment(Long departmentId, DepartmentDto updatedDepartment, String ifMatch);
     void deleteDepartment(Long departmentId);
+    ReassignResultDto reassignEmployees(Long departmentId, ReassignEmployeesRequest request);
+    ReassignResultDto mergeInto(Long departmentId, Long targetDepartmentId);
 }
@@ -0,0 +1,13 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.BatchResultDto;
+import net.javaguides.ems.dto.EmployeeBatchUpdateDto;
+import net.javaguides.ems.dto.EmployeeDto;
+
+import java.util.List;
+
+public interface EmployeeBatchService {
+    BatchResultDto createEmployees(List<EmployeeDto> employees);
+    BatchResultDto updateEmployees(List<EmployeeBatchUpdateDto> employees);
+    BatchResultDto deleteEmployees(List<Long> employeeIds);
+}
@@ -0,0 +1,15 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.ImportResultDto;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface EmployeeImportService {
+    ImportResultDto importCsv(InputStream input);
+    ImportResultDto importNdjson(InputStream input);
+
+    // Rows are numbered from 1 in list order; imported rows get their id set in place
+    ImportResultDto importEmployees(List<EmployeeDto> employees);
+}
@@ -1,6 +1,8 @@
 package net.javaguides.ems.service;
 
 import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.EmployeePageDto;
+import net.javaguides.ems.dto.ResourceVersion;
 
 import java.util.List;
 
@@ -8,7 +10,12 @@ public interface EmployeeService {
     EmployeeDto creatEmployee(EmployeeDto employeeDto);
     EmployeeDto getEmployeeById(Long employeeId);
     List<EmployeeDto> getAllEmployee();
+    EmployeePageDto getEmployeePage(String after, int size);
+    List<EmployeeDto> searchEmployees(String query, int limit);
+    ResourceVersion getEmployeesVersion();
+    ResourceVersion getEmployeeVersion(Long employeeId);
 
-    EmployeeDto updateEmployee(Long employeeId,EmployeeDto updateEmployee);
+    // ifMatch is the If-Match header, or null for an unconditional update
+    EmployeeDto updateEmployee(Long employeeId,EmployeeDto updateEmployee, String ifMatch);
     void deleteEmployee(Long employeeId);
 }
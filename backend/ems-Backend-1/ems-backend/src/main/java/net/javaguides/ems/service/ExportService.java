@@ -0,0 +1,10 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.ExportFormat;
+
+import java.io.OutputStream;
+
+public interface ExportService {
+    void exportEmployees(ExportFormat format, OutputStream output);
+    void exportDepartments(ExportFormat format, OutputStream output);
+}
@@ -0,0 +1,16 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.StatsDto;
+
+public interface StatsService {
+    StatsDto getStats();
+    void reconcile();
+
+    // Counter updates, called by the services that mutate employees and departments
+    void employeeAdded(Long departmentId);
+    void employeeRemoved(Long departmentId);
+    void employeeMoved(Long fromDepartmentId, Long toDepartmentId);
+    void employeesMoved(Long fromDepartmentId, Long toDepartmentId, long count);
+    void departmentSaved(Long departmentId, String name);
+    void departmentRemoved(Long departmentId);
+}
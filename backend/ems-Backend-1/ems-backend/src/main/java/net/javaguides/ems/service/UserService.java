@@ -1,6 +1,7 @@
 package net.javaguides.ems.service;
 
 import net.javaguides.ems.dto.CreateUserRequest;
+import net.javaguides.ems.dto.ResourceVersion;
 import net.javaguides.ems.dto.UserDto;
 
 import java.util.List;
@@ -9,6 +10,7 @@ public interface UserService {
     UserDto createUser(CreateUserRequest createUserRequest);
     List<UserDto> getAllUsers();
     UserDto getUserById(Long id);
-    UserDto updateUser(Long id, UserDto userDto);
+    ResourceVersion getUserVersion(Long id);
+    UserDto updateUser(Long id, UserDto userDto, String ifMatch);
     void deleteUser(Long id);
 }
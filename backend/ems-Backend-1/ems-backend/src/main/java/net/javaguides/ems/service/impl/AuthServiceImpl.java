@@ -1,9 +1,11 @@
 package net.javaguides.ems.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.dto.JwtResponse;
 import net.javaguides.ems.dto.LoginRequest;
 import net.javaguides.ems.security.JwtTokenProvider;
+import net.javaguides.ems.security.LoginExecutor;
 import net.javaguides.ems.security.UserDetailsImpl;
 import net.javaguides.ems.service.AuthService;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -16,20 +18,23 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ems.service", histogram = true)
 @AllArgsConstructor
 public class AuthServiceImpl implements AuthService {
 
     private AuthenticationManager authenticationManager;
     private JwtTokenProvider jwtTokenProvider;
+    private LoginExecutor loginExecutor;
 
     @Override
     public JwtResponse login(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
+        // BCrypt verification runs on the bounded login pool, not on the request thread's CPU budget
+        Authentication authentication = loginExecutor.execute(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         loginRequest.getUsername(),
                         loginRequest.getPassword()
                 )
-        );
+        ));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtTokenProvider.generateToken(authentication);
@@ -0,0 +1,171 @@
+package net.javaguides.ems.service.impl;
+
+import io.micrometer.core.annotation.Timed;
+import net.javaguides.ems.dto.ChangeSetDto;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.entity.Tombstone;
+import net.javaguides.ems.exception.BadRequestException;
+import net.javaguides.ems.exception.SyncTokenExpiredException;
+import net.javaguides.ems.mapper.DepartmentMapper;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import net.javaguides.ems.repository.ChangeSequenceRepository;
+import net.javaguides.ems.repository.DepartmentEmployeeCount;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.repository.TombstoneRepository;
+import net.javaguides.ems.service.ChangeFeedService;
+import net.javaguides.ems.sync.ChangeTracker;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Delta sync on the change numbers stamped by ChangeTracker: live rows and tombstones are both read with
+// a (changeSeq, id) keyset and merged, so a client only downloads what was written since its token.
+@Service
+@Timed(value = "ems.service", histogram = true)
+@Transactional(readOnly = true)
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final int MAX_LIMIT = 5000;
+    private static final Position START = new Position(-1, 0);
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ChangeSequenceRepository changeSequenceRepository;
+    private final Duration tombstoneRetention;
+
+    public ChangeFeedServiceImpl(EmployeeRepository employeeRepository,
+                                 DepartmentRepository departmentRepository,
+                                 TombstoneRepository tombstoneRepository,
+                                 ChangeSequenceRepository changeSequenceRepository,
+                                 @Value("${app.sync.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.employeeRepository = employeeRepository;
+        this.departmentRepository = departmentRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.changeSequenceRepository = changeSequenceRepository;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Override
+    public ChangeSetDto<EmployeeDto> getEmployeeChanges(String since, int limit) {
+        return changes(ChangeTracker.EMPLOYEE, since, limit,
+                (from, page) -> employeeRepository.findChangesAfter(from.seq(), from.id(), page),
+                employee -> new Position(employee.getChangeSeq(), employee.getId()),
+                employees -> employees.stream().map(EmployeeMapper::mapToEmployeeDto).collect(Collectors.toList()));
+    }
+
+    // employeeCount is read at request time: moving employees does not stamp their departments
+    @Override
+    public ChangeSetDto<DepartmentDto> getDepartmentChanges(String since, int limit) {
+        return changes(ChangeTracker.DEPARTMENT, since, limit,
+                (from, page) -> departmentRepository.findChangesAfter(from.seq(), from.id(), page),
+                department -> new Position(department.getChangeSeq(), department.getId()),
+                this::mapDepartments);
+    }
+
+    // Tombstones outside the retention window are dropped; tokens from before them are answered with 410
+    @Override
+    @Transactional
+    @Scheduled(initialDelayString = "${app.sync.purge-interval-ms:3600000}",
+               fixedDelayString = "${app.sync.purge-interval-ms:3600000}")
+    public void purgeTombstones() {
+        tombstoneRepository.findMaxChangeSeqDeletedBefore(LocalDateTime.now().minus(tombstoneRetention))
+                .ifPresent(seq -> {
+                    changeSequenceRepository.advancePrunedThrough(seq);
+                    tombstoneRepository.deleteThrough(seq);
+                });
+    }
+
+    private <E, T> ChangeSetDto<T> changes(String type, String since, int limit,
+                                           BiFunction<Position, Pageable, List<E>> rowsAfter,
+                                           Function<E, Position> positionOf,
+                                           Function<List<E>, List<T>> mapper) {
+        boolean initial = since == null || since.isBlank();
+        Position from = initial ? START : decodeToken(since);
+        if (!initial) {
+            long prunedThrough = changeSequenceRepository.findPrunedThrough().orElse(0L);
+            if (prunedThrough > 0 && from.seq() <= prunedThrough) {
+                throw new SyncTokenExpiredException("Sync token is older than the tombstone retention, sync again without 'since'");
+            }
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // One extra row from each side tells whether more changes follow without a count query
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<E> rows = rowsAfter.apply(from, page);
+        // A client without a token has nothing to delete
+        List<Tombstone> tombstones = initial ? List.of() : tombstoneRepository.findChangesAfter(type, from.seq(), from.id(), page);
+
+        List<E> upserted = new ArrayList<>();
+        List<Long> deleted = new ArrayList<>();
+        Position last = from;
+        int r = 0;
+        int t = 0;
+        while (upserted.size() + deleted.size() < pageSize && (r < rows.size() || t < tombstones.size())) {
+            Position row = r < rows.size() ? positionOf.apply(rows.get(r)) : null;
+            Position tombstone = t < tombstones.size() ? new Position(tombstones.get(t).getChangeSeq(), tombstones.get(t).getEntityId()) : null;
+            if (tombstone == null || (row != null && row.compareTo(tombstone) < 0)) {
+                upserted.add(rows.get(r++));
+                last = row;
+            } else {
+                deleted.add(tombstones.get(t++).getEntityId());
+                last = tombstone;
+            }
+        }
+        boolean hasMore = r < rows.size() || t < tombstones.size();
+        return new ChangeSetDto<>(mapper.apply(upserted), deleted, encodeToken(last), hasMore);
+    }
+
+    private List<DepartmentDto> mapDepartments(List<Department> departments) {
+        if (departments.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Long> employeeCounts = employeeRepository.countByDepartmentIdIn(departments.stream().map(Department::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(DepartmentEmployeeCount::getDepartmentId, DepartmentEmployeeCount::getEmployeeCount));
+        return departments.stream()
+                .map(department -> DepartmentMapper.mapToDepartmentDto(department, employeeCounts.getOrDefault(department.getId(), 0L)))
+                .collect(Collectors.toList());
+    }
+
+    // Token format: base64url("<changeSeq>:<id>") of the last change returned
+    private static String encodeToken(Position position) {
+        String raw = position.seq() + ":" + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodeToken(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new Position(Long.parseLong(decoded.substring(0, separator)), Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid sync token: " + token);
+        }
+    }
+
+    private record Position(long seq, long id) implements Comparable<Position> {
+        @Override
+        public int compareTo(Position other) {
+            int bySeq = Long.compare(seq, other.seq);
+            return bySeq != 0 ? bySeq : Long.compare(id, other.id);
+        }
+    }
+}
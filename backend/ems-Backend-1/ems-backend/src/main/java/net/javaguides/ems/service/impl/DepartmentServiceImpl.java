@@ -1,24 +1,47 @@
 package net.javaguides.ems.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.ReassignEmployeesRequest;
+import net.javaguides.ems.dto.ReassignResultDto;
+import net.javaguides.ems.dto.ResourceVersion;
 import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import net.javaguides.ems.exception.BadRequestException;
+import net.javaguides.ems.exception.PreconditionFailedException;
 import net.javaguides.ems.exception.ResourceNoFoundException;
 import net.javaguides.ems.mapper.DepartmentMapper;
+import net.javaguides.ems.repository.DepartmentEmployeeCount;
 import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.search.EmployeeSearchIndex;
 import net.javaguides.ems.service.DepartmentService;
+import net.javaguides.ems.service.StatsService;
+import net.javaguides.ems.sync.ChangeTracker;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ems.service", histogram = true)
 @AllArgsConstructor
 @Transactional
 public class DepartmentServiceImpl implements DepartmentService {
 
+    private static final int MAX_REASSIGN_IDS = 1000;
+
     private DepartmentRepository departmentRepository;
+    private EmployeeRepository employeeRepository;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private StatsService statsService;
+    private ChangeEventBroadcaster changeEventBroadcaster;
+    private ChangeTracker changeTracker;
 
     @Override
     public DepartmentDto createDepartment(DepartmentDto departmentDto) {
@@ -28,28 +51,63 @@ public class DepartmentServiceImpl implements DepartmentService {
 
         Department department = DepartmentMapper.mapToDepartment(departmentDto);
         Department savedDepartment = departmentRepository.save(department);
-        return DepartmentMapper.mapToDepartmentDto(savedDepartment);
+        statsService.departmentSaved(savedDepartment.getId(), savedDepartment.getName());
+        DepartmentDto savedDepartmentDto = DepartmentMapper.mapToDepartmentDto(savedDepartment, 0);
+        changeEventBroadcaster.departmentSavedAfterCommit(savedDepartmentDto, true);
+        changeTracker.departmentChanged(savedDepartmentDto.getId());
+        return savedDepartmentDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public DepartmentDto getDepartmentById(Long departmentId) {
         Department department = departmentRepository.findById(departmentId)
             .orElseThrow(() -> new ResourceNoFoundException("Department not found with id: " + departmentId));
-        return DepartmentMapper.mapToDepartmentDto(department);
+        return DepartmentMapper.mapToDepartmentDto(department, employeeRepository.countByDepartmentId(departmentId));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<DepartmentDto> getAllDepartments() {
         List<Department> departments = departmentRepository.findAll();
+        // One grouped count query for all departments instead of loading each employees collection
+        Map<Long, Long> employeeCounts = employeeRepository.countByDepartment().stream()
+            .filter(row -> row.getDepartmentId() != null)
+            .collect(Collectors.toMap(DepartmentEmployeeCount::getDepartmentId, DepartmentEmployeeCount::getEmployeeCount));
         return departments.stream()
-            .map(DepartmentMapper::mapToDepartmentDto)
+            .map(department -> DepartmentMapper.mapToDepartmentDto(department, employeeCounts.getOrDefault(department.getId(), 0L)))
             .collect(Collectors.toList());
     }
 
     @Override
-    public DepartmentDto updateDepartment(Long departmentId, DepartmentDto updatedDepartment) {
+    @Transactional(readOnly = true)
+    public ResourceVersion getDepartmentsVersion() {
+        DepartmentRepository.DepartmentListVersion version = departmentRepository.findListVersion();
+        return ResourceVersion.of(-1, "departments", version.getDepartmentCount(), version.getMaxId(), version.getVersionSum(),
+                version.getEmployeeCount(), version.getMaxEmployeeId(), version.getEmployeeVersionSum());
+    }
+
+    // No Last-Modified: the employee count changes without touching the department row
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getDepartmentVersion(Long departmentId) {
+        DepartmentRepository.DepartmentVersion version = departmentRepository.findVersionById(departmentId)
+            .orElseThrow(() -> new ResourceNoFoundException("Department not found with id: " + departmentId));
+        return departmentVersion(departmentId, version.getVersion(), version.getEmployeeCount());
+    }
+
+    private static ResourceVersion departmentVersion(Long departmentId, Long version, long employeeCount) {
+        return ResourceVersion.of(-1, "department", departmentId, version, employeeCount);
+    }
+
+    @Override
+    public DepartmentDto updateDepartment(Long departmentId, DepartmentDto updatedDepartment, String ifMatch) {
         Department department = departmentRepository.findById(departmentId)
             .orElseThrow(() -> new ResourceNoFoundException("Department not found with id: " + departmentId));
+        // The count is only needed to rebuild the ETag, so unconditional updates skip it
+        if (ifMatch != null && !departmentVersion(departmentId, department.getVersion(), employeeRepository.countByDepartmentId(departmentId)).matches(ifMatch)) {
+            throw new PreconditionFailedException("Department " + departmentId + " has been modified since it was read");
+        }
 
         // Check if new name already exists (excluding current department)
         if (!department.getName().equals(updatedDepartment.getName()) &&
@@ -57,11 +115,25 @@ public class DepartmentServiceImpl implements DepartmentService {
             throw new RuntimeException("Department with name '" + updatedDepartment.getName() + "' already exists");
         }
 
+        boolean renamed = !department.getName().equals(updatedDepartment.getName());
         department.setName(updatedDepartment.getName());
         department.setDescription(updatedDepartment.getDescription());
 
-        Department updatedDepartmentObj = departmentRepository.save(department);
-        return DepartmentMapper.mapToDepartmentDto(updatedDepartmentObj);
+        Department updatedDepartmentObj;
+        try {
+            updatedDepartmentObj = departmentRepository.saveAndFlush(department);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Department " + departmentId + " was modified concurrently");
+        }
+        if (renamed) {
+            employeeSearchIndex.renameDepartmentAfterCommit(departmentId, updatedDepartmentObj.getName());
+            statsService.departmentSaved(departmentId, updatedDepartmentObj.getName());
+            changeTracker.departmentMembersChanged(departmentId);
+        }
+        DepartmentDto updatedDepartmentDto = DepartmentMapper.mapToDepartmentDto(updatedDepartmentObj, employeeRepository.countByDepartmentId(departmentId));
+        changeEventBroadcaster.departmentSavedAfterCommit(updatedDepartmentDto, false);
+        changeTracker.departmentChanged(departmentId);
+        return updatedDepartmentDto;
     }
 
     @Override
@@ -69,10 +141,85 @@ public class DepartmentServiceImpl implements DepartmentService {
         Department department = departmentRepository.findById(departmentId)
             .orElseThrow(() -> new ResourceNoFoundException("Department not found with id: " + departmentId));
 
-        if (department.getEmployees() != null && !department.getEmployees().isEmpty()) {
+        if (employeeRepository.existsByDepartmentId(departmentId)) {
             throw new RuntimeException("Cannot delete department with existing employees");
         }
 
         departmentRepository.delete(department);
+        statsService.departmentRemoved(departmentId);
+        changeEventBroadcaster.departmentDeletedAfterCommit(departmentId);
+        changeTracker.departmentDeleted(departmentId);
+    }
+
+    // Reorgs run as one bulk UPDATE instead of one updateEmployee per person; counters, the search
+    // index and both departments' updatedAt are reconciled in the same transaction
+    @Override
+    public ReassignResultDto reassignEmployees(Long departmentId, ReassignEmployeesRequest request) {
+        if (request == null || request.getTargetDepartmentId() == null) {
+            throw new BadRequestException("targetDepartmentId is required");
+        }
+        if (request.getEmployeeIds() != null && request.getEmployeeIds().size() > MAX_REASSIGN_IDS) {
+            throw new BadRequestException("At most " + MAX_REASSIGN_IDS + " employee ids can be listed, omit them to move the whole department");
+        }
+        Department source = findDepartment(departmentId);
+        Department target = findTarget(source, request.getTargetDepartmentId());
+
+        LocalDateTime now = LocalDateTime.now();
+        int moved;
+        // The bulk update does not say which rows it moved, so the delta-sync feed needs the ids first
+        List<Long> movedIds = null;
+        if (request.getEmployeeIds() == null) {
+            changeTracker.employeesChanged(employeeRepository.findIdsByDepartment(source));
+            moved = employeeRepository.moveAllToDepartment(source, target, now);
+        } else {
+            // Listed ids outside the source department are left alone, and must not be restamped either
+            movedIds = request.getEmployeeIds().isEmpty()
+                    ? List.of()
+                    : employeeRepository.findIdsByDepartmentAndIdIn(source, request.getEmployeeIds());
+            moved = movedIds.isEmpty() ? 0 : employeeRepository.moveToDepartment(source, target, movedIds, now);
+            changeTracker.employeesChanged(movedIds);
+        }
+        if (moved > 0) {
+            source.setUpdatedAt(now);
+            target.setUpdatedAt(now);
+            statsService.employeesMoved(source.getId(), target.getId(), moved);
+            employeeSearchIndex.moveDepartmentAfterCommit(source.getId(), movedIds, target.getId(), target.getName());
+            changeEventBroadcaster.employeesInvalidatedAfterCommit();
+            changeTracker.departmentChanged(source.getId());
+            changeTracker.departmentChanged(target.getId());
+        }
+        return new ReassignResultDto(source.getId(), target.getId(), moved, false);
+    }
+
+    @Override
+    public ReassignResultDto mergeInto(Long departmentId, Long targetDepartmentId) {
+        Department source = findDepartment(departmentId);
+        Department target = findTarget(source, targetDepartmentId);
+
+        LocalDateTime now = LocalDateTime.now();
+        changeTracker.employeesChanged(employeeRepository.findIdsByDepartment(source));
+        int moved = employeeRepository.moveAllToDepartment(source, target, now);
+        target.setUpdatedAt(now);
+        statsService.employeesMoved(source.getId(), target.getId(), moved);
+        employeeSearchIndex.moveDepartmentAfterCommit(source.getId(), null, target.getId(), target.getName());
+
+        departmentRepository.delete(source);
+        statsService.departmentRemoved(source.getId());
+        changeEventBroadcaster.employeesInvalidatedAfterCommit();
+        changeTracker.departmentChanged(target.getId());
+        changeTracker.departmentDeleted(source.getId());
+        return new ReassignResultDto(source.getId(), target.getId(), moved, true);
+    }
+
+    private Department findDepartment(Long departmentId) {
+        return departmentRepository.findById(departmentId)
+            .orElseThrow(() -> new ResourceNoFoundException("Department not found with id: " + departmentId));
+    }
+
+    private Department findTarget(Department source, Long targetDepartmentId) {
+        if (source.getId().equals(targetDepartmentId)) {
+            throw new BadRequestException("Source and target departments must differ");
+        }
+        return findDepartment(targetDepartmentId);
     }
 }
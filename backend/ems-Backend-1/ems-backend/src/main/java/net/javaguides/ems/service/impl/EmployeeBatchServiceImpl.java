@@ -0,0 +1,203 @@
+package net.javaguides.ems.service.impl;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import net.javaguides.ems.dto.BatchItemResultDto;
+import net.javaguides.ems.dto.BatchResultDto;
+import net.javaguides.ems.dto.EmployeeBatchUpdateDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.ImportErrorDto;
+import net.javaguides.ems.dto.ImportResultDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import net.javaguides.ems.exception.BadRequestException;
+import net.javaguides.ems.exception.PreconditionFailedException;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.search.EmployeeSearchIndex;
+import net.javaguides.ems.service.EmployeeBatchService;
+import net.javaguides.ems.service.EmployeeImportService;
+import net.javaguides.ems.service.StatsService;
+import net.javaguides.ems.sync.ChangeTracker;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Applies a list of operations in one request and one transaction: targets and departments are loaded
+// with one query each, and the changes are flushed as JDBC batches (hibernate.jdbc.batch_size).
+// Items that fail validation are reported and skipped; the others are committed together.
+@Service
+@Timed(value = "ems.service", histogram = true)
+@AllArgsConstructor
+public class EmployeeBatchServiceImpl implements EmployeeBatchService {
+
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private EmployeeRepository employeeRepository;
+    private DepartmentRepository departmentRepository;
+    private EmployeeImportService employeeImportService;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private StatsService statsService;
+    private ChangeEventBroadcaster changeEventBroadcaster;
+    private ChangeTracker changeTracker;
+    private EntityManager entityManager;
+
+    // Creations go through the import pipeline, which already validates with set-based queries and
+    // inserts with JDBC batches (IDENTITY keys keep Hibernate from batching inserts itself)
+    @Override
+    public BatchResultDto createEmployees(List<EmployeeDto> employees) {
+        checkSize(employees);
+        long startedAt = System.currentTimeMillis();
+        ImportResultDto imported = employeeImportService.importEmployees(employees);
+        Map<Long, String> errors = imported.getErrors().stream()
+                .collect(Collectors.toMap(ImportErrorDto::getLine, ImportErrorDto::getMessage, (first, second) -> first));
+
+        List<BatchItemResultDto> results = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            String error = errors.get((long) i + 1);
+            EmployeeDto employee = employees.get(i);
+            results.add(error != null
+                    ? new BatchItemResultDto(i, null, 400, error, null)
+                    : new BatchItemResultDto(i, employee.getId(), 201, null, employee));
+        }
+        return result(results, startedAt);
+    }
+
+    @Override
+    @Transactional
+    public BatchResultDto updateEmployees(List<EmployeeBatchUpdateDto> employees) {
+        checkSize(employees);
+        long startedAt = System.currentTimeMillis();
+        BatchItemResultDto[] results = new BatchItemResultDto[employees.size()];
+
+        Set<Long> ids = employees.stream().map(EmployeeDto::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Employee> targets = byId(employeeRepository.findWithDetailsByIdIn(ids), Employee::getId);
+        Set<Long> departmentIds = employees.stream().map(EmployeeDto::getDepartmentId).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, Department> departments = byId(departmentRepository.findAllById(departmentIds), Department::getId);
+
+        // An email may only be held by the employee being updated: swapping emails inside one batch would
+        // violate the unique constraint at flush, whatever the statement order
+        Set<String> emails = employees.stream().map(EmployeeDto::getEmail).filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<String, Long> emailOwners = employeeRepository.findIdsByEmailIn(emails).stream()
+                .collect(Collectors.toMap(EmployeeRepository.EmployeeIdView::getEmail, EmployeeRepository.EmployeeIdView::getId));
+
+        Set<Long> seenIds = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Integer> applied = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            EmployeeBatchUpdateDto item = employees.get(i);
+            Long id = item.getId();
+            Employee employee = id != null ? targets.get(id) : null;
+            Long owner = item.getEmail() != null ? emailOwners.get(item.getEmail()) : null;
+            if (id == null) {
+                results[i] = failure(i, null, 400, "Employee id is required");
+            } else if (!seenIds.add(id)) {
+                results[i] = failure(i, id, 400, "Employee appears more than once in the batch: " + id);
+            } else if (employee == null) {
+                results[i] = failure(i, id, 404, "Employee not found with id: " + id);
+            } else if (!EmployeeServiceImpl.employeeVersion(employee).matches(item.getIfMatch())) {
+                // Same rule as the single-item update: a stale edit is refused instead of overwriting newer data
+                results[i] = failure(i, id, 412, "Employee " + id + " has been modified since it was read");
+            } else if (item.getEmail() == null || !item.getEmail().contains("@")) {
+                results[i] = failure(i, id, 400, "A valid email is required");
+            } else if (!seenEmails.add(item.getEmail()) || (owner != null && !owner.equals(id))) {
+                results[i] = failure(i, id, 409, "Email already exists: " + item.getEmail());
+            } else if (item.getDepartmentId() != null && !departments.containsKey(item.getDepartmentId())) {
+                results[i] = failure(i, id, 404, "Department not found with id: " + item.getDepartmentId());
+            } else {
+                Long previousDepartmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
+                employee.setFirstName(item.getFirstName());
+                employee.setLastName(item.getLastName());
+                employee.setEmail(item.getEmail());
+                employee.setDepartment(item.getDepartmentId() != null ? departments.get(item.getDepartmentId()) : null);
+                statsService.employeeMoved(previousDepartmentId, item.getDepartmentId());
+                applied.add(i);
+            }
+        }
+
+        // One flush for the whole batch, so the versioned updates go out as JDBC batches
+        try {
+            employeeRepository.flush();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("An employee of the batch was modified concurrently, nothing was applied");
+        }
+        for (int i : applied) {
+            Employee employee = targets.get(employees.get(i).getId());
+            EmployeeDto updated = EmployeeMapper.mapToEmployeeDto(employee);
+            employeeSearchIndex.indexAfterCommit(updated);
+            results[i] = new BatchItemResultDto(i, employee.getId(), 200, null, updated);
+            changeTracker.employeeChanged(employee.getId());
+        }
+        if (!applied.isEmpty()) {
+            changeEventBroadcaster.employeesInvalidatedAfterCommit();
+        }
+        return result(Arrays.asList(results), startedAt);
+    }
+
+    @Override
+    @Transactional
+    public BatchResultDto deleteEmployees(List<Long> employeeIds) {
+        checkSize(employeeIds);
+        long startedAt = System.currentTimeMillis();
+        Map<Long, Employee> targets = byId(employeeRepository.findWithDetailsByIdIn(
+                employeeIds.stream().filter(Objects::nonNull).collect(Collectors.toSet())), Employee::getId);
+
+        List<BatchItemResultDto> results = new ArrayList<>(employeeIds.size());
+        Set<Long> deleted = new LinkedHashSet<>();
+        for (int i = 0; i < employeeIds.size(); i++) {
+            Long id = employeeIds.get(i);
+            Employee employee = id != null ? targets.get(id) : null;
+            if (employee == null) {
+                results.add(failure(i, id, 404, "Employee not found with id: " + id));
+            } else if (!deleted.add(id)) {
+                results.add(failure(i, id, 400, "Employee appears more than once in the batch: " + id));
+            } else {
+                statsService.employeeRemoved(employee.getDepartment() != null ? employee.getDepartment().getId() : null);
+                employeeSearchIndex.removeAfterCommit(id);
+                results.add(new BatchItemResultDto(i, id, 204, null, null));
+            }
+        }
+        // A single "delete ... where id in (...)" instead of one statement per employee. The bulk delete bypasses
+        // the persistence context, so the loaded targets are detached: later reads in the same transaction must
+        // not find them there, and the flush at commit must not write them back.
+        if (!deleted.isEmpty()) {
+            employeeRepository.deleteAllByIdInBatch(deleted);
+            deleted.forEach(id -> entityManager.detach(targets.get(id)));
+            changeEventBroadcaster.employeesInvalidatedAfterCommit();
+            changeTracker.employeesDeleted(deleted);
+        }
+        return result(results, startedAt);
+    }
+
+    private static void checkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BadRequestException("The batch is empty");
+        }
+        if (items.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("A batch is limited to " + MAX_BATCH_SIZE + " operations");
+        }
+    }
+
+    private static <T> Map<Long, T> byId(Iterable<T> entities, Function<T, Long> id) {
+        Map<Long, T> map = new HashMap<>();
+        entities.forEach(entity -> map.put(id.apply(entity), entity));
+        return map;
+    }
+
+    private static BatchItemResultDto failure(int index, Long id, int status, String error) {
+        return new BatchItemResultDto(index, id, status, error, null);
+    }
+
+    private static BatchResultDto result(List<BatchItemResultDto> results, long startedAt) {
+        int succeeded = (int) results.stream().filter(result -> result.getError() == null).count();
+        return new BatchResultDto(results.size(), succeeded, results.size() - succeeded,
+                System.currentTimeMillis() - startedAt, results);
+    }
+}
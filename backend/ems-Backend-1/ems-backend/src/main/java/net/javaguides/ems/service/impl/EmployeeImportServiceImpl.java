@@ -0,0 +1,484 @@
+package net.javaguides.ems.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AllArgsConstructor;
+import net.javaguides.ems.config.HibernateCacheConfig;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.ImportErrorDto;
+import net.javaguides.ems.dto.ImportResultDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.entity.Role;
+import net.javaguides.ems.entity.RoleName;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import net.javaguides.ems.exception.BadRequestException;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.repository.UserRepository;
+import net.javaguides.ems.search.EmployeeSearchIndex;
+import net.javaguides.ems.security.PasswordHashExecutor;
+import net.javaguides.ems.security.RoleRegistry;
+import net.javaguides.ems.service.EmployeeImportService;
+import net.javaguides.ems.service.StatsService;
+import net.javaguides.ems.sync.ChangeTracker;
+import net.javaguides.ems.util.TransactionUtils;
+import org.hibernate.SessionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Streams the upload line by line and works in chunks: each chunk is validated with set-based
+// queries, then written with JDBC batch inserts in its own transaction. Only one chunk of rows
+// is held in memory at a time: duplicates are tracked per chunk, and rows repeating an earlier,
+// already committed chunk are caught by the same existence queries as any other existing row.
+@Service
+@Timed(value = "ems.service", histogram = true)
+@AllArgsConstructor
+public class EmployeeImportServiceImpl implements EmployeeImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 10_000;
+    // A quoted CSV field may span lines; past this length an unterminated quote stops swallowing the file
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final String INSERT_USER =
+            "insert into users (username, email, password, first_name, last_name, enabled, created_at, updated_at, version) " +
+            "values (?, ?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_USER_ROLE = "insert into user_roles (user_id, role_id) values (?, ?)";
+    private static final String INSERT_EMPLOYEE =
+            "insert into employees (first_name, last_name, email_id, department_id, user_id, version, updated_at) " +
+            "values (?, ?, ?, ?, ?, 0, ?)";
+
+    private EmployeeRepository employeeRepository;
+    private UserRepository userRepository;
+    private DepartmentRepository departmentRepository;
+    private RoleRegistry roleRegistry;
+    private PasswordHashExecutor passwordHashExecutor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private StatsService statsService;
+    private EntityManagerFactory entityManagerFactory;
+    private ChangeEventBroadcaster changeEventBroadcaster;
+    private ChangeTracker changeTracker;
+
+    @Override
+    public ImportResultDto importCsv(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RecordReader records = new RecordReader(reader, true);
+            String header = records.next();
+            if (header == null) {
+                return new ImportRun().result();
+            }
+            Map<String, Integer> columns = parseHeader(header);
+            return importLines(records, line -> fromCsv(parseCsvLine(line), columns));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ImportResultDto importNdjson(InputStream input) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            return importLines(new RecordReader(reader, false), line -> {
+                try {
+                    return objectMapper.readValue(line, EmployeeDto.class);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalArgumentException("Invalid JSON: " + e.getOriginalMessage());
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ImportResultDto importEmployees(List<EmployeeDto> employees) {
+        ImportRun run = new ImportRun();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        long position = 0;
+        for (EmployeeDto employee : employees) {
+            run.processed++;
+            chunk.add(new ImportRow(++position, employee));
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, run);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, run);
+        return run.result();
+    }
+
+    private ImportResultDto importLines(RecordReader records, Function<String, EmployeeDto> rowParser) throws IOException {
+        ImportRun run = new ImportRun();
+        List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+        String line;
+        while ((line = records.next()) != null) {
+            long lineNumber = records.recordLine;
+            if (line.isBlank()) {
+                continue;
+            }
+            run.processed++;
+            try {
+                chunk.add(new ImportRow(lineNumber, rowParser.apply(line)));
+            } catch (RuntimeException e) {
+                run.fail(lineNumber, null, e.getMessage());
+            }
+            if (chunk.size() == CHUNK_SIZE) {
+                importChunk(chunk, run);
+                chunk.clear();
+            }
+        }
+        importChunk(chunk, run);
+        return run.result();
+    }
+
+    private void importChunk(List<ImportRow> rows, ImportRun run) {
+        List<ImportRow> valid = validate(rows, run);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // BCrypt dominates the cost of rows that carry an account: hash them in parallel, on the bounded
+        // pool shared with the other bulk writes rather than the common ForkJoinPool
+        List<ImportRow> withAccount = valid.stream().filter(ImportRow::hasAccount).toList();
+        List<String> hashes = passwordHashExecutor.encodeAll(withAccount.stream().map(row -> row.employee.getPassword()).toList());
+        for (int i = 0; i < withAccount.size(); i++) {
+            withAccount.get(i).passwordHash = hashes.get(i);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insert(valid));
+            run.imported += valid.size();
+        } catch (RuntimeException e) {
+            String message = "Chunk rolled back: " + rootMessage(e);
+            valid.forEach(row -> run.fail(row.line, row.employee.getEmail(), message));
+        }
+    }
+
+    private List<ImportRow> validate(List<ImportRow> rows, ImportRun run) {
+        // Emails and usernames are compared case-insensitively, like the MySQL unique indexes
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<ImportRow> candidates = new ArrayList<>(rows.size());
+        for (ImportRow row : rows) {
+            EmployeeDto employee = row.employee;
+            employee.setEmail(trimToNull(employee.getEmail()));
+            employee.setUsername(trimToNull(employee.getUsername()));
+            String error = null;
+            if (employee.getEmail() == null || !employee.getEmail().contains("@")) {
+                error = "A valid email is required";
+            } else if (!seenEmails.add(normalize(employee.getEmail()))) {
+                error = "Duplicate email in import: " + employee.getEmail();
+            } else if (row.hasAccount() && !seenUsernames.add(normalize(employee.getUsername()))) {
+                error = "Duplicate username in import: " + employee.getUsername();
+            }
+            if (error != null) {
+                run.fail(row.line, employee.getEmail(), error);
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        // One query per check for the whole chunk
+        Set<String> emails = candidates.stream().map(row -> row.employee.getEmail()).collect(Collectors.toSet());
+        Set<String> usernames = candidates.stream().filter(ImportRow::hasAccount)
+                .map(row -> row.employee.getUsername()).collect(Collectors.toSet());
+        Set<String> takenEmployeeEmails = normalize(employeeRepository.findExistingEmails(emails));
+        Set<String> takenUserEmails = normalize(userRepository.findExistingEmails(emails));
+        Set<String> takenUsernames = usernames.isEmpty() ? Set.of() : normalize(userRepository.findExistingUsernames(usernames));
+
+        Set<Long> unknownDepartments = candidates.stream()
+                .map(row -> row.employee.getDepartmentId())
+                .filter(id -> id != null && !run.departmentNames.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!unknownDepartments.isEmpty()) {
+            for (Department department : departmentRepository.findAllById(unknownDepartments)) {
+                run.departmentNames.put(department.getId(), department.getName());
+            }
+        }
+
+        List<ImportRow> valid = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            EmployeeDto employee = row.employee;
+            String error = null;
+            if (takenEmployeeEmails.contains(normalize(employee.getEmail()))) {
+                error = "Employee email already exists: " + employee.getEmail();
+            } else if (takenUserEmails.contains(normalize(employee.getEmail()))) {
+                error = "Email already registered: " + employee.getEmail();
+            } else if (row.hasAccount() && takenUsernames.contains(normalize(employee.getUsername()))) {
+                error = "Username already exists: " + employee.getUsername();
+            } else if (employee.getDepartmentId() != null && !run.departmentNames.containsKey(employee.getDepartmentId())) {
+                error = "Department not found with id: " + employee.getDepartmentId();
+            } else if (row.hasAccount()) {
+                try {
+                    row.roles = employee.getRoles() != null && !employee.getRoles().isEmpty()
+                            ? roleRegistry.resolve(employee.getRoles())
+                            : Set.of(roleRegistry.get(RoleName.ROLE_EMPLOYEE));
+                } catch (RuntimeException e) {
+                    error = "Role not found: " + employee.getRoles();
+                }
+            }
+            if (error != null) {
+                run.fail(row.line, employee.getEmail(), error);
+            } else {
+                employee.setDepartmentName(employee.getDepartmentId() != null ? run.departmentNames.get(employee.getDepartmentId()) : null);
+                valid.add(row);
+            }
+        }
+        return valid;
+    }
+
+    private void insert(List<ImportRow> rows) {
+        List<ImportRow> withAccount = rows.stream().filter(ImportRow::hasAccount).toList();
+        Map<String, Long> userIds = Map.of();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (!withAccount.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_USER, withAccount.stream()
+                    .map(row -> new Object[] {
+                            row.employee.getUsername(), row.employee.getEmail(), row.passwordHash,
+                            null, null, true, now, now })
+                    .toList());
+
+            // IDENTITY keys are read back with one set-based query instead of per-row generated keys
+            userIds = userRepository.findIdsByUsernameIn(withAccount.stream().map(row -> row.employee.getUsername()).toList())
+                    .stream()
+                    .collect(Collectors.toMap(UserRepository.UserIdView::getUsername, UserRepository.UserIdView::getId));
+
+            List<Object[]> userRoles = new ArrayList<>();
+            for (ImportRow row : withAccount) {
+                Long userId = userIds.get(row.employee.getUsername());
+                row.roles.forEach(role -> userRoles.add(new Object[] { userId, role.getId() }));
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles);
+            // JDBC writes bypass Hibernate's table timestamps: drop cached "no such username" lookups
+            TransactionUtils.afterCommit(() -> entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                    .evictQueryRegion(HibernateCacheConfig.USERS_BY_USERNAME));
+        }
+
+        Map<String, Long> accountIds = userIds;
+        jdbcTemplate.batchUpdate(INSERT_EMPLOYEE, rows.stream()
+                .map(row -> new Object[] {
+                        row.employee.getFirstName(), row.employee.getLastName(), row.employee.getEmail(),
+                        row.employee.getDepartmentId(),
+                        row.hasAccount() ? accountIds.get(row.employee.getUsername()) : null, now })
+                .toList());
+
+        Map<String, Long> employeeIds = employeeRepository.findIdsByEmailIn(rows.stream().map(row -> row.employee.getEmail()).toList())
+                .stream()
+                .collect(Collectors.toMap(EmployeeRepository.EmployeeIdView::getEmail, EmployeeRepository.EmployeeIdView::getId));
+
+        for (ImportRow row : rows) {
+            EmployeeDto employee = row.employee;
+            employee.setId(employeeIds.get(employee.getEmail()));
+            employee.setPassword(null);
+            if (row.hasAccount()) {
+                employee.setRoles(row.roles.stream().map(role -> role.getName().name()).collect(Collectors.toSet()));
+            } else {
+                employee.setUsername(null);
+                employee.setRoles(null);
+            }
+            employeeSearchIndex.indexAfterCommit(employee);
+            statsService.employeeAdded(employee.getDepartmentId());
+        }
+        changeTracker.employeesChanged(employeeIds.values());
+        changeEventBroadcaster.employeesInvalidatedAfterCommit();
+    }
+
+    private static Map<String, Integer> parseHeader(String header) {
+        if (header.startsWith("﻿")) {
+            header = header.substring(1);
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("email")) {
+            throw new BadRequestException("CSV header must contain an 'email' column");
+        }
+        return columns;
+    }
+
+    private static EmployeeDto fromCsv(List<String> values, Map<String, Integer> columns) {
+        EmployeeDto employee = new EmployeeDto();
+        employee.setFirstName(column(values, columns, "firstname"));
+        employee.setLastName(column(values, columns, "lastname"));
+        employee.setEmail(column(values, columns, "email"));
+        String departmentId = column(values, columns, "departmentid");
+        if (departmentId != null) {
+            try {
+                employee.setDepartmentId(Long.valueOf(departmentId));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid departmentId: " + departmentId);
+            }
+        }
+        employee.setUsername(column(values, columns, "username"));
+        employee.setPassword(column(values, columns, "password"));
+        String roles = column(values, columns, "roles");
+        if (roles != null) {
+            employee.setRoles(Arrays.stream(roles.split(";")).map(String::trim).filter(r -> !r.isEmpty()).collect(Collectors.toSet()));
+        }
+        return employee;
+    }
+
+    private static String column(List<String> values, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        return trimToNull(values.get(index));
+    }
+
+    // RFC 4180 fields of one record: comma separated, optionally quoted, "" escapes a quote
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalize(Collection<String> values) {
+        return values.stream().map(EmployeeImportServiceImpl::normalize).collect(Collectors.toSet());
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+
+    // Hands out one record at a time with the line it starts on. For CSV, a record continues on the next
+    // line while a quoted field is open, so multiline values written by the export read back as one row.
+    private static class RecordReader {
+        private final BufferedReader reader;
+        private final boolean quotedNewlines;
+        private long line;
+        private long recordLine;
+
+        RecordReader(BufferedReader reader, boolean quotedNewlines) {
+            this.reader = reader;
+            this.quotedNewlines = quotedNewlines;
+        }
+
+        String next() throws IOException {
+            String first = reader.readLine();
+            if (first == null) {
+                return null;
+            }
+            recordLine = ++line;
+            if (!quotedNewlines || quoteCount(first) % 2 == 0) {
+                return first;
+            }
+            StringBuilder record = new StringBuilder(first);
+            long quotes = quoteCount(first);
+            String next;
+            while (quotes % 2 != 0 && record.length() < MAX_RECORD_LENGTH && (next = reader.readLine()) != null) {
+                line++;
+                record.append('\n').append(next);
+                quotes += quoteCount(next);
+            }
+            return record.toString();
+        }
+
+        private static long quoteCount(String text) {
+            return text.chars().filter(c -> c == '"').count();
+        }
+    }
+
+    private static class ImportRow {
+        private final long line;
+        private final EmployeeDto employee;
+        private Set<Role> roles;
+        private String passwordHash;
+
+        ImportRow(long line, EmployeeDto employee) {
+            this.line = line;
+            this.employee = employee;
+        }
+
+        // Same rule as creatEmployee: an account is created only when both username and password are given
+        boolean hasAccount() {
+            return employee.getUsername() != null && employee.getPassword() != null;
+        }
+    }
+
+    private static class ImportRun {
+        private long processed;
+        private long imported;
+        private long failed;
+        private final long startedAt = System.currentTimeMillis();
+        private final List<ImportErrorDto> errors = new ArrayList<>();
+        private final Map<Long, String> departmentNames = new HashMap<>();
+
+        void fail(long line, String email, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportErrorDto(line, email, message));
+            }
+        }
+
+        ImportResultDto result() {
+            return new ImportResultDto(processed, imported, failed, System.currentTimeMillis() - startedAt,
+                    errors, failed > errors.size());
+        }
+    }
+}
@@ -1,38 +1,65 @@
 package net.javaguides.ems.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.EmployeePageDto;
+import net.javaguides.ems.dto.ResourceVersion;
 import net.javaguides.ems.entity.Department;
 import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.entity.EmployeeDirectoryEntry;
 import net.javaguides.ems.entity.Role;
 import net.javaguides.ems.entity.RoleName;
 import net.javaguides.ems.entity.User;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import net.javaguides.ems.exception.BadRequestException;
+import net.javaguides.ems.exception.PreconditionFailedException;
 import net.javaguides.ems.exception.ResourceNoFoundException;
 import net.javaguides.ems.mapper.EmployeeMapper;
 import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeDirectoryRepository;
 import net.javaguides.ems.repository.EmployeeRepository;
-import net.javaguides.ems.repository.RoleRepository;
 import net.javaguides.ems.repository.UserRepository;
+import net.javaguides.ems.search.EmployeeSearchIndex;
+import net.javaguides.ems.security.RoleRegistry;
 import net.javaguides.ems.service.EmployeeService;
+import net.javaguides.ems.service.StatsService;
+import net.javaguides.ems.sync.ChangeTracker;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ems.service", histogram = true)
 @AllArgsConstructor
 @Transactional
 public class EmployeeServiceImpl implements EmployeeService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private EmployeeRepository employeeRepository;
+    private EmployeeDirectoryRepository employeeDirectoryRepository;
     private DepartmentRepository departmentRepository;
     private UserRepository userRepository;
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
     private PasswordEncoder passwordEncoder;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private StatsService statsService;
+    private ChangeEventBroadcaster changeEventBroadcaster;
+    private ChangeTracker changeTracker;
+
     @Override
     public EmployeeDto creatEmployee(EmployeeDto employeeDto) {
         // Check if username already exists
@@ -65,16 +92,10 @@ public class EmployeeServiceImpl implements EmployeeService {
             // Set roles
             Set<Role> roles = new HashSet<>();
             if (employeeDto.getRoles() != null && !employeeDto.getRoles().isEmpty()) {
-                for (String roleName : employeeDto.getRoles()) {
-                    Role role = roleRepository.findByName(RoleName.valueOf(roleName))
-                        .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
-                    roles.add(role);
-                }
+                roles.addAll(roleRegistry.resolve(employeeDto.getRoles()));
             } else {
                 // Default role: EMPLOYEE
-                Role defaultRole = roleRepository.findByName(RoleName.ROLE_EMPLOYEE)
-                    .orElseThrow(() -> new RuntimeException("Default role ROLE_EMPLOYEE not found"));
-                roles.add(defaultRole);
+                roles.add(roleRegistry.get(RoleName.ROLE_EMPLOYEE));
             }
             user.setRoles(roles);
 
@@ -83,26 +104,131 @@ public class EmployeeServiceImpl implements EmployeeService {
         }
 
         Employee savedEmployee = employeeRepository.save(employee);
-        return EmployeeMapper.mapToEmployeeDto(savedEmployee);
+        EmployeeDto savedEmployeeDto = EmployeeMapper.mapToEmployeeDto(savedEmployee);
+        employeeSearchIndex.indexAfterCommit(savedEmployeeDto);
+        statsService.employeeAdded(savedEmployeeDto.getDepartmentId());
+        changeEventBroadcaster.employeeCreatedAfterCommit(savedEmployeeDto);
+        changeTracker.employeeChanged(savedEmployeeDto.getId());
+        return savedEmployeeDto;
     }
 
+    // Reads come from the employee_directory table, kept in step by EmployeeDirectoryProjector
     @Override
+    @Transactional(readOnly = true)
     public EmployeeDto getEmployeeById(Long employeeId) {
-        Employee employee = employeeRepository.findById(employeeId)
+        EmployeeDirectoryEntry employee = employeeDirectoryRepository.findById(employeeId)
                 .orElseThrow(() -> new ResourceNoFoundException("Employee is not exist with the given id : "+ employeeId));
         return EmployeeMapper.mapToEmployeeDto(employee) ;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<EmployeeDto> getAllEmployee() {
-        List<Employee> employees = employeeRepository.findAll();
+        List<EmployeeDirectoryEntry> employees = employeeDirectoryRepository.findAll();
         return employees.stream().map((employee ) -> EmployeeMapper.mapToEmployeeDto(employee)).collect(Collectors.toList());
     }
 
     @Override
-    public EmployeeDto updateEmployee(Long employeeId, EmployeeDto updateEmployee) {
-        Employee employee = employeeRepository.findById(employeeId)
+    @Transactional(readOnly = true)
+    public EmployeePageDto getEmployeePage(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists without a count query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<EmployeeDirectoryEntry> employees;
+        if (after == null || after.isBlank()) {
+            employees = employeeDirectoryRepository.findFirstPage(limit);
+        } else {
+            String decoded = decodeCursor(after);
+            int separator = decoded.indexOf(':');
+            try {
+                if (separator < 0) {
+                    employees = employeeDirectoryRepository.findPageAfterNullLastName(Long.valueOf(decoded), limit);
+                } else {
+                    employees = employeeDirectoryRepository.findPageAfter(
+                        decoded.substring(separator + 1), Long.valueOf(decoded.substring(0, separator)), limit);
+                }
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid cursor: " + after);
+            }
+        }
+
+        String nextCursor = null;
+        if (employees.size() > pageSize) {
+            employees = employees.subList(0, pageSize);
+            nextCursor = encodeCursor(employees.get(pageSize - 1));
+        }
+
+        List<EmployeeDto> content = employees.stream().map(EmployeeMapper::mapToEmployeeDto).collect(Collectors.toList());
+        return new EmployeePageDto(content, content.size(), nextCursor);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<EmployeeDto> searchEmployees(String query, int limit) {
+        // Served entirely from the in-memory index, no database round trip
+        return employeeSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+    }
+
+    // Collection validator read from the directory: deletions lower the count and every other change raises
+    // the highest change_seq. No Last-Modified here, since a deletion does not move any timestamp forward.
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getEmployeesVersion() {
+        EmployeeDirectoryRepository.DirectoryVersion version = employeeDirectoryRepository.findListVersion();
+        return ResourceVersion.of(-1, "employees", version.getEmployeeCount(), version.getMaxChangeSeq());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ResourceVersion getEmployeeVersion(Long employeeId) {
+        EmployeeRepository.EmployeeVersion version = employeeRepository.findVersionById(employeeId)
+                .orElseThrow(() -> new ResourceNoFoundException("Employee is not exist with the given id : "+ employeeId));
+        return employeeVersion(employeeId, version.getVersion(), version.getDepartmentId(), version.getDepartmentVersion(),
+                version.getUserId(), version.getUserVersion(),
+                ResourceVersion.toEpochMilli(version.getEmployeeModified(), version.getDepartmentModified(), version.getUserModified()));
+    }
+
+    // Built from the same parts whether read by the validator query or from a loaded entity, so the ETag
+    // a client got from GET compares equal to the one checked on update
+    private static ResourceVersion employeeVersion(Long employeeId, Long version, Long departmentId, Long departmentVersion,
+                                                   Long userId, Long userVersion, long lastModified) {
+        return ResourceVersion.of(lastModified, "employee", employeeId, version, departmentId, departmentVersion, userId, userVersion);
+    }
+
+    // Also checks the per-item ETags of batch updates
+    static ResourceVersion employeeVersion(Employee employee) {
+        Department department = employee.getDepartment();
+        User user = employee.getUser();
+        return employeeVersion(employee.getId(), employee.getVersion(),
+                department != null ? department.getId() : null, department != null ? department.getVersion() : null,
+                user != null ? user.getId() : null, user != null ? user.getVersion() : null, -1);
+    }
+
+    // Cursor format: base64url("<id>:<lastName>"), or just "<id>" when the last name is null
+    private static String encodeCursor(EmployeeDirectoryEntry employee) {
+        String raw = employee.getLastName() != null
+            ? employee.getId() + ":" + employee.getLastName()
+            : String.valueOf(employee.getId());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    @Override
+    public EmployeeDto updateEmployee(Long employeeId, EmployeeDto updateEmployee, String ifMatch) {
+        Employee employee = employeeRepository.findWithDetailsById(employeeId)
             .orElseThrow(() -> new ResourceNoFoundException("Employee not found with id: " + employeeId));
+        if (!employeeVersion(employee).matches(ifMatch)) {
+            throw new PreconditionFailedException("Employee " + employeeId + " has been modified since it was read");
+        }
+        Long previousDepartmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
 
         employee.setFirstName(updateEmployee.getFirstName());
         employee.setLastName(updateEmployee.getLastName());
@@ -117,13 +243,29 @@ public class EmployeeServiceImpl implements EmployeeService {
             employee.setDepartment(null);
         }
 
-        Employee updatedEmployeeObj = employeeRepository.save(employee);
-        return EmployeeMapper.mapToEmployeeDto(updatedEmployeeObj);
+        // Flushed here so a concurrent commit surfaces as a version conflict instead of a lost update
+        Employee updatedEmployeeObj;
+        try {
+            updatedEmployeeObj = employeeRepository.saveAndFlush(employee);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Employee " + employeeId + " was modified concurrently");
+        }
+        EmployeeDto updatedEmployeeDto = EmployeeMapper.mapToEmployeeDto(updatedEmployeeObj);
+        employeeSearchIndex.indexAfterCommit(updatedEmployeeDto);
+        statsService.employeeMoved(previousDepartmentId, updatedEmployeeDto.getDepartmentId());
+        changeEventBroadcaster.employeeUpdatedAfterCommit(updatedEmployeeDto, previousDepartmentId);
+        changeTracker.employeeChanged(employeeId);
+        return updatedEmployeeDto;
     }
 
     @Override
     public void deleteEmployee(Long employeeId) {
         Employee employee =  employeeRepository.findById(employeeId).orElseThrow(()-> new ResourceNoFoundException("mployee not Exist whith the given id : "+employeeId));
+        Long departmentId = employee.getDepartment() != null ? employee.getDepartment().getId() : null;
         employeeRepository.delete(employee);
+        employeeSearchIndex.removeAfterCommit(employeeId);
+        statsService.employeeRemoved(departmentId);
+        changeEventBroadcaster.employeeDeletedAfterCommit(employeeId, departmentId);
+        changeTracker.employeeDeleted(employeeId);
     }
 }
@@ -0,0 +1,138 @@
+package net.javaguides.ems.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.AllArgsConstructor;
+import net.javaguides.ems.dto.ExportFormat;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.DepartmentRepository.DepartmentExportRow;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.repository.EmployeeRepository.EmployeeExportRow;
+import net.javaguides.ems.service.ExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+// Rows go from a forward-only result set straight to the response through a fixed-size buffer,
+// so heap use does not depend on the table size. CSV headers use the same column names as the import.
+@Service
+@Timed(value = "ems.service", histogram = true)
+@AllArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private EmployeeRepository employeeRepository;
+    private DepartmentRepository departmentRepository;
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportEmployees(ExportFormat format, OutputStream output) {
+        try (Stream<EmployeeExportRow> rows = employeeRepository.streamForExport()) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == ExportFormat.CSV) {
+                writer.write("id,firstName,lastName,email,departmentId,departmentName,username\n");
+                for (EmployeeExportRow row : (Iterable<EmployeeExportRow>) rows::iterator) {
+                    writeCsvRow(writer, row.getId(), row.getFirstName(), row.getLastName(), row.getEmail(),
+                            row.getDepartmentId(), row.getDepartmentName(), row.getUsername());
+                }
+            } else {
+                JsonGenerator json = ndjsonGenerator(writer);
+                for (EmployeeExportRow row : (Iterable<EmployeeExportRow>) rows::iterator) {
+                    json.writeStartObject();
+                    writeNumberField(json, "id", row.getId());
+                    json.writeStringField("firstName", row.getFirstName());
+                    json.writeStringField("lastName", row.getLastName());
+                    json.writeStringField("email", row.getEmail());
+                    writeNumberField(json, "departmentId", row.getDepartmentId());
+                    json.writeStringField("departmentName", row.getDepartmentName());
+                    json.writeStringField("username", row.getUsername());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+                json.flush();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportDepartments(ExportFormat format, OutputStream output) {
+        try (Stream<DepartmentExportRow> rows = departmentRepository.streamForExport()) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == ExportFormat.CSV) {
+                writer.write("id,name,description,employeeCount\n");
+                for (DepartmentExportRow row : (Iterable<DepartmentExportRow>) rows::iterator) {
+                    writeCsvRow(writer, row.getId(), row.getName(), row.getDescription(), row.getEmployeeCount());
+                }
+            } else {
+                JsonGenerator json = ndjsonGenerator(writer);
+                for (DepartmentExportRow row : (Iterable<DepartmentExportRow>) rows::iterator) {
+                    json.writeStartObject();
+                    writeNumberField(json, "id", row.getId());
+                    json.writeStringField("name", row.getName());
+                    json.writeStringField("description", row.getDescription());
+                    json.writeNumberField("employeeCount", row.getEmployeeCount());
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+                json.flush();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private JsonGenerator ndjsonGenerator(Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        json.setRootValueSeparator(null);
+        return json;
+    }
+
+    private static void writeNumberField(JsonGenerator json, String name, Long value) throws IOException {
+        if (value == null) {
+            json.writeNullField(name);
+        } else {
+            json.writeNumberField(name, value);
+        }
+    }
+
+    private static void writeCsvRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvValue(writer, values[i].toString());
+            }
+        }
+        writer.write('\n');
+    }
+
+    private static void writeCsvValue(Writer writer, String value) throws IOException {
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,146 @@
+package net.javaguides.ems.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import net.javaguides.ems.dto.DepartmentStatDto;
+import net.javaguides.ems.dto.StatsDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import net.javaguides.ems.repository.DepartmentEmployeeCount;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.service.StatsService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static net.javaguides.ems.util.TransactionUtils.afterCommit;
+
+@Service
+@RequiredArgsConstructor
+public class StatsServiceImpl implements StatsService {
+
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+
+    // Counters are adjusted after each committed mutation and periodically reset from a GROUP BY query
+    private final Map<Long, String> departmentNames = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> employeesPerDepartment = new ConcurrentHashMap<>();
+    private final AtomicLong unassignedEmployees = new AtomicLong();
+
+    @Override
+    @Transactional(readOnly = true)
+    public StatsDto getStats() {
+        List<DepartmentStatDto> departments = departmentNames.entrySet().stream()
+                .map(entry -> new DepartmentStatDto(entry.getKey(), entry.getValue(), count(entry.getKey())))
+                .sorted(Comparator.comparingLong(DepartmentStatDto::getEmployeeCount).reversed())
+                .collect(Collectors.toList());
+
+        long assigned = departments.stream().mapToLong(DepartmentStatDto::getEmployeeCount).sum();
+        long unassigned = unassignedEmployees.get();
+
+        return StatsDto.builder()
+                .totalEmployees(assigned + unassigned)
+                .departmentCount(departments.size())
+                .assignedEmployees(assigned)
+                .unassignedEmployees(unassigned)
+                .departments(departments)
+                .recentEmployees(employeeRepository.findTop5ByOrderByIdDesc().stream()
+                        .map(EmployeeMapper::mapToEmployeeDto)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Map<Long, String> names = departmentRepository.findAll().stream()
+                .collect(Collectors.toMap(Department::getId, Department::getName));
+        Map<Long, Long> counts = new ConcurrentHashMap<>();
+        long unassigned = 0;
+        for (DepartmentEmployeeCount row : employeeRepository.countByDepartment()) {
+            if (row.getDepartmentId() == null) {
+                unassigned = row.getEmployeeCount();
+            } else {
+                counts.put(row.getDepartmentId(), row.getEmployeeCount());
+            }
+        }
+
+        departmentNames.keySet().retainAll(names.keySet());
+        departmentNames.putAll(names);
+        employeesPerDepartment.keySet().retainAll(names.keySet());
+        names.keySet().forEach(id -> counter(id).set(counts.getOrDefault(id, 0L)));
+        unassignedEmployees.set(unassigned);
+    }
+
+    @Override
+    public void employeeAdded(Long departmentId) {
+        afterCommit(() -> counter(departmentId).incrementAndGet());
+    }
+
+    @Override
+    public void employeeRemoved(Long departmentId) {
+        afterCommit(() -> counter(departmentId).decrementAndGet());
+    }
+
+    @Override
+    public void employeeMoved(Long fromDepartmentId, Long toDepartmentId) {
+        if (Objects.equals(fromDepartmentId, toDepartmentId)) {
+            return;
+        }
+        afterCommit(() -> {
+            counter(fromDepartmentId).decrementAndGet();
+            counter(toDepartmentId).incrementAndGet();
+        });
+    }
+
+    @Override
+    public void employeesMoved(Long fromDepartmentId, Long toDepartmentId, long count) {
+        if (Objects.equals(fromDepartmentId, toDepartmentId) || count == 0) {
+            return;
+        }
+        afterCommit(() -> {
+            counter(fromDepartmentId).addAndGet(-count);
+            counter(toDepartmentId).addAndGet(count);
+        });
+    }
+
+    @Override
+    public void departmentSaved(Long departmentId, String name) {
+        afterCommit(() -> {
+            departmentNames.put(departmentId, name);
+            employeesPerDepartment.computeIfAbsent(departmentId, id -> new AtomicLong());
+        });
+    }
+
+    @Override
+    public void departmentRemoved(Long departmentId) {
+        afterCommit(() -> {
+            departmentNames.remove(departmentId);
+            employeesPerDepartment.remove(departmentId);
+        });
+    }
+
+    private AtomicLong counter(Long departmentId) {
+        return departmentId == null
+                ? unassignedEmployees
+                : employeesPerDepartment.computeIfAbsent(departmentId, id -> new AtomicLong());
+    }
+
+    private long count(Long departmentId) {
+        AtomicLong counter = employeesPerDepartment.get(departmentId);
+        return counter != null ? counter.get() : 0;
+    }
+}
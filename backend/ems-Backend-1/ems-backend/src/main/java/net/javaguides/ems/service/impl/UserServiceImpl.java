@@ -1,36 +1,52 @@
 package net.javaguides.ems.service.impl;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.AllArgsConstructor;
 import net.javaguides.ems.dto.CreateUserRequest;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.ResourceVersion;
 import net.javaguides.ems.dto.UserDto;
 import net.javaguides.ems.entity.Employee;
 import net.javaguides.ems.entity.Role;
 import net.javaguides.ems.entity.RoleName;
 import net.javaguides.ems.entity.User;
+import net.javaguides.ems.events.ChangeEventBroadcaster;
+import net.javaguides.ems.exception.PreconditionFailedException;
 import net.javaguides.ems.exception.ResourceNoFoundException;
+import net.javaguides.ems.mapper.EmployeeMapper;
 import net.javaguides.ems.mapper.UserMapper;
 import net.javaguides.ems.repository.EmployeeRepository;
-import net.javaguides.ems.repository.RoleRepository;
 import net.javaguides.ems.repository.UserRepository;
+import net.javaguides.ems.search.EmployeeSearchIndex;
+import net.javaguides.ems.security.RoleRegistry;
+import net.javaguides.ems.security.UserPrincipalCache;
 import net.javaguides.ems.service.UserService;
+import net.javaguides.ems.sync.ChangeTracker;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "ems.service", histogram = true)
 @AllArgsConstructor
 @Transactional
 public class UserServiceImpl implements UserService {
 
     private UserRepository userRepository;
-    private RoleRepository roleRepository;
+    private RoleRegistry roleRegistry;
     private EmployeeRepository employeeRepository;
     private PasswordEncoder passwordEncoder;
+    private EmployeeSearchIndex employeeSearchIndex;
+    private UserPrincipalCache userPrincipalCache;
+    private ChangeEventBroadcaster changeEventBroadcaster;
+    private ChangeTracker changeTracker;
 
     @Override
     public UserDto createUser(CreateUserRequest createUserRequest) {
@@ -57,31 +73,34 @@ public class UserServiceImpl implements UserService {
         // Set roles
         Set<Role> roles = new HashSet<>();
         if (createUserRequest.getRoles() != null && !createUserRequest.getRoles().isEmpty()) {
-            createUserRequest.getRoles().forEach(roleName -> {
-                Role role = roleRepository.findByName(RoleName.valueOf(roleName))
-                        .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
-                roles.add(role);
-            });
+            roles.addAll(roleRegistry.resolve(createUserRequest.getRoles()));
         } else {
             // Default role: EMPLOYEE
-            Role employeeRole = roleRepository.findByName(RoleName.ROLE_EMPLOYEE)
-                    .orElseThrow(() -> new RuntimeException("Default role not found"));
-            roles.add(employeeRole);
+            roles.add(roleRegistry.get(RoleName.ROLE_EMPLOYEE));
         }
         user.setRoles(roles);
 
         // Link to employee if provided
+        Employee employee = null;
         if (createUserRequest.getEmployeeId() != null) {
-            Employee employee = employeeRepository.findById(createUserRequest.getEmployeeId())
+            employee = employeeRepository.findById(createUserRequest.getEmployeeId())
                     .orElseThrow(() -> new ResourceNoFoundException("Employee not found with id: " + createUserRequest.getEmployeeId()));
             employee.setUser(user);
+            changeTracker.employeeChanged(employee.getId());
         }
 
         User savedUser = userRepository.save(user);
-        return UserMapper.mapToUserDto(savedUser);
+        if (employee != null) {
+            // The search index holds the account username and roles of each employee
+            employeeSearchIndex.indexAfterCommit(EmployeeMapper.mapToEmployeeDto(employee));
+        }
+        UserDto savedUserDto = UserMapper.mapToUserDto(savedUser);
+        changeEventBroadcaster.userSavedAfterCommit(savedUserDto, true);
+        return savedUserDto;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
         List<User> users = userRepository.findAll();
         return users.stream()
@@ -90,6 +109,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNoFoundException("User not found with id: " + id));
@@ -97,9 +117,23 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public UserDto updateUser(Long id, UserDto userDto) {
+    @Transactional(readOnly = true)
+    public ResourceVersion getUserVersion(Long id) {
+        return userVersion(id, userRepository.findVersionById(id)
+                .orElseThrow(() -> new ResourceNoFoundException("User not found with id: " + id)));
+    }
+
+    private static ResourceVersion userVersion(Long id, Long version) {
+        return ResourceVersion.of(-1, "user", id, version);
+    }
+
+    @Override
+    public UserDto updateUser(Long id, UserDto userDto, String ifMatch) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNoFoundException("User not found with id: " + id));
+        if (!userVersion(id, user.getVersion()).matches(ifMatch)) {
+            throw new PreconditionFailedException("User " + id + " has been modified since it was read");
+        }
 
         // Update basic fields
         if (userDto.getFirstName() != null) {
@@ -113,24 +147,45 @@ public class UserServiceImpl implements UserService {
         }
 
         // Update roles if provided
-        if (userDto.getRoles() != null && !userDto.getRoles().isEmpty()) {
-            Set<Role> roles = new HashSet<>();
-            userDto.getRoles().forEach(roleName -> {
-                Role role = roleRepository.findByName(RoleName.valueOf(roleName))
-                        .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
-                roles.add(role);
-            });
-            user.setRoles(roles);
+        boolean rolesChanged = userDto.getRoles() != null && !userDto.getRoles().isEmpty();
+        if (rolesChanged) {
+            user.setRoles(roleRegistry.resolve(userDto.getRoles()));
+            // Roles live in a join table, so the row timestamp is set explicitly rather than via @PreUpdate
+            user.setUpdatedAt(LocalDateTime.now());
+            // Employee rows embed the account roles
+            if (user.getEmployee() != null) {
+                changeTracker.employeeChanged(user.getEmployee().getId());
+            }
         }
 
-        User updatedUser = userRepository.save(user);
-        return UserMapper.mapToUserDto(updatedUser);
+        User updatedUser;
+        try {
+            updatedUser = userRepository.saveAndFlush(user);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("User " + id + " was modified concurrently");
+        }
+        userPrincipalCache.invalidateAfterCommit(updatedUser.getUsername());
+        if (rolesChanged && updatedUser.getEmployee() != null) {
+            employeeSearchIndex.indexAfterCommit(EmployeeMapper.mapToEmployeeDto(updatedUser.getEmployee()));
+        }
+        UserDto updatedUserDto = UserMapper.mapToUserDto(updatedUser);
+        changeEventBroadcaster.userSavedAfterCommit(updatedUserDto, false);
+        return updatedUserDto;
     }
 
     @Override
     public void deleteUser(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNoFoundException("User not found with id: " + id));
+        if (user.getEmployee() != null) {
+            EmployeeDto unlinked = EmployeeMapper.mapToEmployeeDto(user.getEmployee());
+            unlinked.setUsername(null);
+            unlinked.setRoles(null);
+            employeeSearchIndex.indexAfterCommit(unlinked);
+            changeTracker.employeeChanged(user.getEmployee().getId());
+        }
         userRepository.delete(user);
+        userPrincipalCache.invalidateAfterCommit(user.getUsername());
+        changeEventBroadcaster.userDeletedAfterCommit(id);
     }
 }
@@ -0,0 +1,165 @@
+package net.javaguides.ems.sync;
+
+import jakarta.persistence.EntityManager;
+import lombok.AllArgsConstructor;
+import net.javaguides.ems.entity.ChangeSequence;
+import net.javaguides.ems.repository.ChangeSequenceRepository;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeDirectoryRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import net.javaguides.ems.repository.TombstoneRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Records which employees and departments a transaction wrote, stamps them with one change number and
+// projects them into employee_directory right before it commits. Numbers are taken from the change_sequence
+// row, whose lock is held until the commit: a transaction can only get N+1 once N is committed, so a reader
+// that sees N+1 also sees N and a sync token never skips over a change that was still in flight.
+// To keep that lock short, all the work is done under a per-transaction negative placeholder first; the
+// number is taken last and only swapped in, through the change_seq indexes.
+@Component
+@AllArgsConstructor
+public class ChangeTracker {
+
+    public static final String EMPLOYEE = "employee";
+    public static final String DEPARTMENT = "department";
+
+    private static final int STAMP_CHUNK_SIZE = 1000;
+    private static final String INSERT_TOMBSTONE =
+            "insert into tombstones (entity_type, entity_id, change_seq, deleted_at) values (?, ?, ?, ?)";
+
+    private ChangeSequenceRepository changeSequenceRepository;
+    private EmployeeRepository employeeRepository;
+    private DepartmentRepository departmentRepository;
+    private EmployeeDirectoryProjector employeeDirectoryProjector;
+    private EmployeeDirectoryRepository employeeDirectoryRepository;
+    private TombstoneRepository tombstoneRepository;
+    private EntityManager entityManager;
+    private JdbcTemplate jdbcTemplate;
+
+    public void employeeChanged(Long employeeId) {
+        pending().employees.add(employeeId);
+    }
+
+    public void employeesChanged(Collection<Long> employeeIds) {
+        pending().employees.addAll(employeeIds);
+    }
+
+    // For changes that show up in every employee row of a department (its name)
+    public void departmentMembersChanged(Long departmentId) {
+        pending().departmentMembers.add(departmentId);
+    }
+
+    public void employeeDeleted(Long employeeId) {
+        pending().deletedEmployees.add(employeeId);
+    }
+
+    public void employeesDeleted(Collection<Long> employeeIds) {
+        pending().deletedEmployees.addAll(employeeIds);
+    }
+
+    public void departmentChanged(Long departmentId) {
+        pending().departments.add(departmentId);
+    }
+
+    public void departmentDeleted(Long departmentId) {
+        pending().deletedDepartments.add(departmentId);
+    }
+
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Changes can only be tracked inside a transaction");
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    stamp(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ChangeTracker.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void stamp(Pending pending) {
+        long placeholder = -1 - ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+        for (List<Long> ids : chunks(pending.employees)) {
+            employeeRepository.stampChangeSeq(ids, placeholder);
+        }
+        if (!pending.departmentMembers.isEmpty()) {
+            employeeRepository.stampChangeSeqByDepartment(pending.departmentMembers, placeholder);
+        }
+        for (List<Long> ids : chunks(pending.departments)) {
+            departmentRepository.stampChangeSeq(ids, placeholder);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> tombstones = new ArrayList<>();
+        pending.deletedEmployees.forEach(id -> tombstones.add(new Object[] { EMPLOYEE, id, placeholder, now }));
+        pending.deletedDepartments.forEach(id -> tombstones.add(new Object[] { DEPARTMENT, id, placeholder, now }));
+        if (!tombstones.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TOMBSTONE, tombstones);
+        }
+
+        employeeDirectoryProjector.project(pending.employees, pending.departmentMembers, pending.deletedEmployees, placeholder);
+        entityManager.flush();
+
+        long seq = nextSeq();
+        if (!pending.employees.isEmpty() || !pending.departmentMembers.isEmpty()) {
+            employeeRepository.restampChangeSeq(placeholder, seq);
+            employeeDirectoryRepository.restampChangeSeq(placeholder, seq);
+        }
+        if (!pending.departments.isEmpty()) {
+            departmentRepository.restampChangeSeq(placeholder, seq);
+        }
+        if (!tombstones.isEmpty()) {
+            tombstoneRepository.restampChangeSeq(List.of(EMPLOYEE, DEPARTMENT), placeholder, seq);
+        }
+    }
+
+    private long nextSeq() {
+        if (changeSequenceRepository.increment() == 0) {
+            // First write ever: the row is created here and the insert lock serves the same purpose
+            changeSequenceRepository.saveAndFlush(new ChangeSequence(ChangeSequence.ID, 1, 0));
+            return 1;
+        }
+        return changeSequenceRepository.findLastSeq();
+    }
+
+    static List<List<Long>> chunks(Set<Long> ids) {
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += STAMP_CHUNK_SIZE) {
+            chunks.add(all.subList(from, Math.min(all.size(), from + STAMP_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private static class Pending {
+        private final Set<Long> employees = new LinkedHashSet<>();
+        private final Set<Long> departmentMembers = new LinkedHashSet<>();
+        private final Set<Long> departments = new LinkedHashSet<>();
+        private final Set<Long> deletedEmployees = new LinkedHashSet<>();
+        private final Set<Long> deletedDepartments = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,124 @@
+package net.javaguides.ems.sync;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.entity.EmployeeDirectoryEntry;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import net.javaguides.ems.repository.EmployeeDirectoryRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import org.hibernate.Session;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.graph.RootGraph;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Keeps employee_directory in step with the normalized tables. ChangeTracker calls it right before commit
+// with the employees the transaction touched, so the read side commits or rolls back with the write.
+@Slf4j
+@Component
+public class EmployeeDirectoryProjector {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeDirectoryRepository employeeDirectoryRepository;
+    private final EntityManager entityManager;
+    private final boolean rebuildOnStartup;
+
+    public EmployeeDirectoryProjector(EmployeeRepository employeeRepository,
+                                      EmployeeDirectoryRepository employeeDirectoryRepository,
+                                      EntityManager entityManager,
+                                      @Value("${app.directory.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.employeeRepository = employeeRepository;
+        this.employeeDirectoryRepository = employeeDirectoryRepository;
+        this.entityManager = entityManager;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    void project(Set<Long> changedEmployees, Set<Long> renamedDepartments, Set<Long> deletedEmployees, long seq) {
+        if (!deletedEmployees.isEmpty()) {
+            for (List<Long> ids : ChangeTracker.chunks(deletedEmployees)) {
+                employeeDirectoryRepository.deleteAllByIdInBatch(ids);
+            }
+        }
+        // Bulk statements first, so the rows merged below are not overwritten by stale copies
+        if (!renamedDepartments.isEmpty()) {
+            employeeDirectoryRepository.refreshDepartmentNames(renamedDepartments, seq);
+        }
+
+        Set<Long> upserts = changedEmployees.stream().filter(id -> !deletedEmployees.contains(id)).collect(Collectors.toSet());
+        for (List<Long> ids : ChangeTracker.chunks(upserts)) {
+            // Loads the existing rows into the persistence context: merge then updates them without another select
+            Set<Long> existing = employeeDirectoryRepository.findAllById(ids).stream()
+                    .map(EmployeeDirectoryEntry::getId)
+                    .collect(Collectors.toSet());
+            for (Employee employee : load(ids)) {
+                EmployeeDirectoryEntry entry = EmployeeMapper.mapToDirectoryEntry(employee, seq);
+                if (existing.contains(entry.getId())) {
+                    entityManager.merge(entry);
+                } else {
+                    entityManager.persist(entry);
+                }
+            }
+        }
+    }
+
+    // Employees the transaction already holds are taken from the persistence context; the others (JDBC imports,
+    // bulk moves) are fetched in one statement with what EmployeeMapper touches
+    private List<Employee> load(List<Long> ids) {
+        Session session = entityManager.unwrap(Session.class);
+        RootGraph<Employee> graph = session.createEntityGraph(Employee.class);
+        graph.addAttributeNodes("department");
+        graph.addSubgraph("user").addAttributeNodes("roles");
+        return session.byMultipleIds(Employee.class)
+                .with(graph, GraphSemantic.FETCH)
+                .enableSessionCheck(true)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Fills the table when it is missing rows (e.g. the first start after it was introduced) or lags behind the
+    // employees (a projection that failed, rows fixed by hand in SQL); app.directory.rebuild-on-startup forces it
+    // when a stale row would not show in these totals. Runs before the search index, which is built from it.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional
+    public void rebuildIfIncomplete() {
+        EmployeeDirectoryRepository.DirectoryVersion employees = employeeRepository.findDirectoryVersion();
+        EmployeeDirectoryRepository.DirectoryVersion directory = employeeDirectoryRepository.findListVersion();
+        if (!rebuildOnStartup
+                && directory.getEmployeeCount() == employees.getEmployeeCount()
+                && directory.getMaxChangeSeq() == employees.getMaxChangeSeq()) {
+            return;
+        }
+        employeeDirectoryRepository.deleteAllInBatch();
+        long written = 0;
+        long lastId = 0;
+        List<Long> ids;
+        // Keyset pages of ids: only one chunk of employees is loaded at a time
+        while (!(ids = employeeRepository.findIdsAfter(lastId, PageRequest.of(0, REBUILD_CHUNK_SIZE))).isEmpty()) {
+            for (Employee employee : employeeRepository.findWithDetailsByIdIn(ids)) {
+                entityManager.persist(EmployeeMapper.mapToDirectoryEntry(employee, employee.getChangeSeq()));
+            }
+            entityManager.flush();
+            entityManager.clear();
+            written += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        log.info("Employee directory rebuilt with {} rows", written);
+    }
+}
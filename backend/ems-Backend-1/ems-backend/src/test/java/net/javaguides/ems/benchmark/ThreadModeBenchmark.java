@@ -0,0 +1,81 @@
+package net.javaguides.ems.benchmark;
+
+import net.javaguides.ems.config.VirtualThreadPinningMonitor;
+import net.javaguides.ems.loadtest.LoadGenerator;
+import net.javaguides.ems.loadtest.LoadGenerator.Operation;
+import net.javaguides.ems.loadtest.LoadReport;
+import net.javaguides.ems.loadtest.LoadTestEnvironment;
+import net.javaguides.ems.loadtest.LoadTestEnvironment.Dataset;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Compares the default platform-thread mode with the virtual-threads profile. The application is
+// booted once per mode on the loadtest profile and driven by N concurrent clients issuing
+// authenticated GET /api/employees/{id} and /api/employees/page requests.
+//
+//   mvn test -Dtest=ThreadModeBenchmark -Dbenchmark=true -Dbenchmark.clients=200,1000,5000 -Dbenchmark.duration=20s
+//
+// The report is printed and written to target/benchmark/thread-modes.txt.
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ThreadModeBenchmark {
+
+    private static final int SEEDED_EMPLOYEES = 2_000;
+    private static final Duration WARM_UP = Duration.ofSeconds(5);
+
+    @Test
+    void compareThreadModes() throws Exception {
+        int[] clients = Arrays.stream(System.getProperty("benchmark.clients", "200,1000,5000").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+        Duration duration = Duration.parse("PT" + System.getProperty("benchmark.duration", "20s"));
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %8s %12s %9s %9s %9s %8s", "mode", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors"));
+        for (String mode : List.of("platform", "virtual")) {
+            String[] profiles = mode.equals("virtual") ? new String[] {"virtual-threads"} : new String[0];
+            try (LoadTestEnvironment environment = LoadTestEnvironment.start(profiles)) {
+                Dataset dataset = environment.seed(0, SEEDED_EMPLOYEES, 1);
+                List<String> tokens = List.of(environment.login(dataset.usernames().get(0), LoadTestEnvironment.PASSWORD));
+                LoadGenerator generator = new LoadGenerator(environment.httpClient(), List.of(
+                        new Operation("GET /api/employees/{id}", 1, (random, token) -> get(environment,
+                                "/api/employees/" + dataset.employees().get(random.nextInt(SEEDED_EMPLOYEES)).id(), token)),
+                        new Operation("GET /api/employees/page", 1, (random, token) -> get(environment,
+                                "/api/employees/page?size=20", token))));
+
+                generator.run(200, WARM_UP, tokens);
+                for (int clientCount : clients) {
+                    LoadReport result = generator.run(clientCount, duration, tokens);
+                    Histogram latencies = result.total().latencies();
+                    report.add(String.format("%-9s %8d %12.0f %9.1f %9.1f %9.1f %8d", mode, clientCount,
+                            result.throughput(result.total()), latencies.getValueAtPercentile(50) / 1e3,
+                            latencies.getValueAtPercentile(99) / 1e3, latencies.getMaxValue() / 1e3,
+                            result.total().errors()));
+                }
+                environment.context().getBeanProvider(VirtualThreadPinningMonitor.class).ifAvailable(monitor ->
+                        report.add("  pinned virtual threads over threshold: " + monitor.getPinnedCount()));
+            }
+        }
+
+        String text = String.join("\n", report);
+        System.out.println(text);
+        Path output = Path.of("target", "benchmark", "thread-modes.txt");
+        Files.createDirectories(output.getParent());
+        Files.writeString(output, text + "\n");
+    }
+
+    private static HttpRequest get(LoadTestEnvironment environment, String path, String token) {
+        return HttpRequest.newBuilder(environment.uri(path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+    }
+}
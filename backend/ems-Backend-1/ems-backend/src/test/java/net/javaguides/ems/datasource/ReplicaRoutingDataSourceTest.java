@@ -0,0 +1,119 @@
+package net.javaguides.ems.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Primary and replicas are separate in-memory H2 databases, each knowing its own name
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicReference<String> currentUser = new AtomicReference<>();
+
+    private ReplicaRoutingDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = newRoutingDataSource(ReplicaRoutingDataSource.Selection.ROUND_ROBIN);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasAndWritesToPrimary() {
+        assertThat(readOnlyNode()).startsWith("replica");
+        assertThat(readWriteNode()).isEqualTo("primary");
+        // Outside a transaction there is no read-only hint
+        assertThat(node()).isEqualTo("primary");
+    }
+
+    @Test
+    void replicasAreUsedRoundRobin() {
+        List<String> nodes = IntStream.range(0, 4).mapToObj(i -> readOnlyNode()).toList();
+
+        assertThat(nodes).containsExactly("replica-a", "replica-b", "replica-a", "replica-b");
+        assertThat(dataSource.getRoutedCount("replica-1")).isEqualTo(2);
+        assertThat(dataSource.getRoutedCount("replica-2")).isEqualTo(2);
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() {
+        currentUser.set("alice");
+        readWrite.executeWithoutResult(status -> jdbcTemplate.update("update node set writes = writes + 1"));
+
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        currentUser.set("bob");
+        assertThat(readOnlyNode()).startsWith("replica");
+    }
+
+    @Test
+    void rolledBackWritesDoNotPinTheUser() {
+        currentUser.set("carol");
+        readWrite.executeWithoutResult(status -> {
+            jdbcTemplate.update("update node set writes = writes + 1");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyNode()).startsWith("replica");
+    }
+
+    @Test
+    void leastConnectionsFallsBackToRoundRobinWithoutPoolStatistics() throws Exception {
+        dataSource.close();
+        dataSource = newRoutingDataSource(ReplicaRoutingDataSource.Selection.LEAST_CONNECTIONS);
+
+        assertThat(readOnlyNode()).isEqualTo("replica-a");
+        assertThat(readOnlyNode()).isEqualTo("replica-b");
+    }
+
+    private ReplicaRoutingDataSource newRoutingDataSource(ReplicaRoutingDataSource.Selection selection) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(h2("primary"), List.of(h2("replica-a"), h2("replica-b")),
+                selection, Duration.ofMinutes(1), currentUser::get);
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return routing;
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> node());
+    }
+
+    private String readWriteNode() {
+        return readWrite.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(h2);
+        jdbc.execute("create table if not exists node (name varchar(20), writes int)");
+        jdbc.update("delete from node");
+        jdbc.update("insert into node values (?, 0)", name);
+        return h2;
+    }
+}
@@ -0,0 +1,21 @@
+package net.javaguides.ems.diagnostics;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Fails the test when its body (not @BeforeEach set-up) runs more SQL statements than max, or repeats
+// one statement shape more than maxRepeats times. Requires the DataSource to be proxied by
+// DataSourceProxyConfig, which is active by default in @SpringBootTest and can be @Import-ed in slices.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryCountExtension.class)
+public @interface ExpectedQueries {
+
+    int max();
+
+    int maxRepeats() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,37 @@
+package net.javaguides.ems.diagnostics;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+import java.util.stream.Collectors;
+
+class QueryCountExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        StatementCounter.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        StatementLog log = StatementCounter.stop();
+        ExpectedQueries expected = context.getRequiredTestMethod().getAnnotation(ExpectedQueries.class);
+        if (log == null || expected == null) {
+            return;
+        }
+        if (log.count() > expected.max()) {
+            throw new AssertionFailedError("Expected at most " + expected.max() + " SQL statements but "
+                    + log.count() + " were executed:\n" + describe(log));
+        }
+        if (log.maxRepeats() > expected.maxRepeats()) {
+            throw new AssertionFailedError("Expected no statement shape repeated more than " + expected.maxRepeats()
+                    + " times but found " + log.maxRepeats() + ":\n" + describe(log));
+        }
+    }
+
+    private static String describe(StatementLog log) {
+        return log.statements().stream().map(sql -> "  " + sql).collect(Collectors.joining("\n"));
+    }
+}
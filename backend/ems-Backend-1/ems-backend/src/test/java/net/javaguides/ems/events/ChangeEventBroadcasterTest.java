@@ -0,0 +1,93 @@
+package net.javaguides.ems.events;
+
+import net.javaguides.ems.dto.CreateUserRequest;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.UserDto;
+import net.javaguides.ems.service.DepartmentService;
+import net.javaguides.ems.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class ChangeEventBroadcasterTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserService userService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void committedChangesAreStreamedToSubscribersAllowedToSeeThem() throws Exception {
+        MockHttpServletResponse admin = subscribe("ROLE_ADMIN");
+        MockHttpServletResponse employee = subscribe("ROLE_EMPLOYEE");
+
+        String departmentName = "Events-" + System.nanoTime();
+        DepartmentDto department = departmentService.createDepartment(new DepartmentDto(null, departmentName, null, null, null, null));
+        String username = "events" + System.nanoTime();
+        UserDto user = userService.createUser(new CreateUserRequest(username, username + "@equipepro.com", "secret123", null, null, null, null));
+
+        try {
+            awaitContent(admin, username);
+            awaitContent(employee, departmentName);
+            assertThat(admin.getContentAsString()).contains("event:ready", "event:department", "\"action\":\"created\"", departmentName);
+            // User events are for administrators only
+            assertThat(employee.getContentAsString()).doesNotContain("event:user", username);
+        } finally {
+            // The loadtest context, and its database, is shared with other test classes
+            userService.deleteUser(user.getId());
+            departmentService.deleteDepartment(department.getId());
+        }
+    }
+
+    private MockHttpServletResponse subscribe(String role) throws Exception {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(role.toLowerCase(), null,
+                AuthorityUtils.createAuthorityList(role));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return mockMvc.perform(get("/api/events").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    // Events are written by the broadcaster's sender threads
+    private static void awaitContent(MockHttpServletResponse response, String text) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(text) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(response.getContentAsString()).contains(text);
+    }
+}
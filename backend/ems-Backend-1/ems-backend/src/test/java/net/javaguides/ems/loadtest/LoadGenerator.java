@@ -0,0 +1,101 @@
+package net.javaguides.ems.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Closed-loop load generator: each client is a virtual thread that picks a weighted operation, sends it,
+// waits for the response and repeats until the deadline. Latencies are recorded per operation in
+// microseconds with HdrHistogram (3 significant digits). A non-2xx status or an I/O failure is an error.
+public final class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final HttpClient httpClient;
+    private final List<Operation> operations;
+    private final int[] cumulativeWeights;
+
+    public LoadGenerator(HttpClient httpClient, List<Operation> operations) {
+        this.httpClient = httpClient;
+        this.operations = List.copyOf(operations);
+        this.cumulativeWeights = new int[operations.size()];
+        int total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            total += operations.get(i).weight();
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public LoadReport run(int clients, Duration duration, List<String> tokens) throws InterruptedException {
+        Recorder[] recorders = new Recorder[operations.size()];
+        LongAdder[] errors = new LongAdder[operations.size()];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+            errors[i] = new LongAdder();
+        }
+
+        long startedAt = System.nanoTime();
+        long deadline = startedAt + duration.toNanos();
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int client = 0; client < clients; client++) {
+            String token = tokens.get(client % tokens.size());
+            threads.add(Thread.ofVirtual().name("load-client-", client).start(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int index = pick(random);
+                    HttpRequest request = operations.get(index).request().create(random, token);
+                    long sentAt = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 != 2) {
+                            errors[index].increment();
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    } catch (Exception e) {
+                        errors[index].increment();
+                    }
+                    recorders[index].recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - sentAt) / 1_000));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        List<LoadReport.EndpointResult> results = new ArrayList<>(operations.size());
+        for (int i = 0; i < operations.size(); i++) {
+            Histogram latencies = recorders[i].getIntervalHistogram();
+            results.add(new LoadReport.EndpointResult(operations.get(i).name(), latencies, errors[i].sum()));
+        }
+        return new LoadReport(clients, elapsedNanos, results);
+    }
+
+    private int pick(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    public record Operation(String name, int weight, RequestFactory request) {
+    }
+
+    @FunctionalInterface
+    public interface RequestFactory {
+        HttpRequest create(ThreadLocalRandom random, String token);
+    }
+}
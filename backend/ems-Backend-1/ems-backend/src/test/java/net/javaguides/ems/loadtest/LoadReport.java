@@ -0,0 +1,92 @@
+package net.javaguides.ems.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// Per-endpoint throughput, latency percentiles and error rate. write() also stores each endpoint's
+// full percentile distribution (.hgrm, values in milliseconds) for plotting or comparing runs.
+public final class LoadReport {
+
+    private static final double MICROS_PER_MILLI = 1_000.0;
+
+    private final int clients;
+    private final long elapsedNanos;
+    private final List<EndpointResult> endpoints;
+    private final EndpointResult total;
+
+    LoadReport(int clients, long elapsedNanos, List<EndpointResult> endpoints) {
+        this.clients = clients;
+        this.elapsedNanos = elapsedNanos;
+        this.endpoints = List.copyOf(endpoints);
+        Histogram all = new Histogram(3);
+        long errors = 0;
+        for (EndpointResult endpoint : endpoints) {
+            all.add(endpoint.latencies());
+            errors += endpoint.errors();
+        }
+        this.total = new EndpointResult("TOTAL", all, errors);
+    }
+
+    public List<EndpointResult> endpoints() {
+        return endpoints;
+    }
+
+    public EndpointResult total() {
+        return total;
+    }
+
+    public double throughput(EndpointResult endpoint) {
+        return endpoint.requests() / (elapsedNanos / 1e9);
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%d clients, %.1f s%n", clients, elapsedNanos / 1e9));
+        out.append(String.format("%-32s %9s %9s %8s %8s %8s %8s %8s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms", "errors"));
+        for (EndpointResult endpoint : endpoints) {
+            appendRow(out, endpoint);
+        }
+        appendRow(out, total);
+        return out.toString();
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Files.writeString(directory.resolve("report.txt"), format());
+        for (EndpointResult endpoint : endpoints) {
+            String fileName = endpoint.name().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)))) {
+                endpoint.latencies().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private void appendRow(StringBuilder out, EndpointResult endpoint) {
+        Histogram latencies = endpoint.latencies();
+        out.append(String.format("%-32s %9d %9.1f %8.2f %8.2f %8.2f %8.2f %8.2f %7.2f%%%n",
+                endpoint.name(), endpoint.requests(), throughput(endpoint),
+                latencies.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(95) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                latencies.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                latencies.getMaxValue() / MICROS_PER_MILLI,
+                endpoint.errorRate() * 100));
+    }
+
+    public record EndpointResult(String name, Histogram latencies, long errors) {
+
+        public long requests() {
+            return latencies.getTotalCount();
+        }
+
+        public double errorRate() {
+            return requests() == 0 ? 0 : (double) errors / requests();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package net.javaguides.ems.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.javaguides.ems.EmsBackendApplication;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.JwtResponse;
+import net.javaguides.ems.service.DepartmentService;
+import net.javaguides.ems.service.EmployeeImportService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Boots the application on the loadtest profile (in-memory H2 in MySQL mode, random port) and seeds
+// it through the regular services, so load tests need neither MySQL nor a running server.
+public final class LoadTestEnvironment implements AutoCloseable {
+
+    public static final String PASSWORD = "loadtest123";
+
+    private final ConfigurableApplicationContext context;
+    private final int port;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LoadTestEnvironment(ConfigurableApplicationContext context) {
+        this.context = context;
+        this.port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    }
+
+    public static LoadTestEnvironment start(String... extraProfiles) {
+        String profiles = String.join(",", prepend("loadtest", extraProfiles));
+        return new LoadTestEnvironment(new SpringApplicationBuilder(EmsBackendApplication.class)
+                .run("--spring.profiles.active=" + profiles));
+    }
+
+    public ConfigurableApplicationContext context() {
+        return context;
+    }
+
+    public HttpClient httpClient() {
+        return httpClient;
+    }
+
+    public ObjectMapper objectMapper() {
+        return objectMapper;
+    }
+
+    public URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    // Users are created with ROLE_ADMIN so every endpoint in a mixed workload is allowed
+    public Dataset seed(int departments, int employees, int users) {
+        DepartmentService departmentService = context.getBean(DepartmentService.class);
+        List<Long> departmentIds = new ArrayList<>(departments);
+        for (int i = 1; i <= departments; i++) {
+            DepartmentDto department = departmentService.createDepartment(
+                    new DepartmentDto(null, "Load department " + i, "Seeded for load tests", null, null, null));
+            departmentIds.add(department.getId());
+        }
+
+        StringBuilder csv = new StringBuilder("firstName,lastName,email,departmentId,username,password,roles\n");
+        for (int i = 1; i <= employees; i++) {
+            csv.append("First").append(i).append(",Last").append(i).append(",load").append(i).append("@example.com,");
+            if (!departmentIds.isEmpty()) {
+                csv.append(departmentIds.get(i % departmentIds.size()));
+            }
+            csv.append(",,,\n");
+        }
+        List<String> usernames = new ArrayList<>(users);
+        for (int i = 1; i <= users; i++) {
+            String username = "loaduser" + i;
+            usernames.add(username);
+            csv.append("Load,User").append(i).append(',').append(username).append("@example.com,,")
+                    .append(username).append(',').append(PASSWORD).append(",ROLE_ADMIN\n");
+        }
+        context.getBean(EmployeeImportService.class)
+                .importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<SeededEmployee> seededEmployees = jdbcTemplate.query(
+                "select id, email_id, department_id from employees where user_id is null order by id",
+                (rs, row) -> new SeededEmployee(rs.getLong(1), rs.getString(2), rs.getObject(3, Long.class)));
+        List<Long> userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class);
+        return new Dataset(departmentIds, seededEmployees, userIds, usernames);
+    }
+
+    public String login(String username, String password) {
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri("/api/auth/login"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(
+                                    Map.of("username", username, "password", password))))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed for " + username + ": HTTP " + response.statusCode());
+            }
+            return objectMapper.readValue(response.body(), JwtResponse.class).getToken();
+        } catch (IOException e) {
+            throw new IllegalStateException("Login failed for " + username, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login interrupted", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        context.close();
+    }
+
+    private static List<String> prepend(String first, String[] rest) {
+        List<String> all = new ArrayList<>(List.of(first));
+        all.addAll(List.of(rest));
+        return all;
+    }
+
+    public record Dataset(List<Long> departmentIds, List<SeededEmployee> employees, List<Long> userIds,
+                          List<String> usernames) {
+    }
+
+    public record SeededEmployee(long id, String email, Long departmentId) {
+    }
+}
@@ -0,0 +1,138 @@
+package net.javaguides.ems.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import net.javaguides.ems.loadtest.LoadGenerator.Operation;
+import net.javaguides.ems.loadtest.LoadTestEnvironment.Dataset;
+import net.javaguides.ems.loadtest.LoadTestEnvironment.SeededEmployee;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// End-to-end load test of the REST layer on the loadtest profile: seeds a dataset, logs every seeded
+// user in through /api/auth/login and drives a read-heavy mix of employee, department, user, stats
+// and login requests. Opt-in and configurable through system properties:
+//
+//   mvn test -Dtest=MixedWorkloadLoadTest -Dloadtest=true -Dloadtest.clients=100 -Dloadtest.duration=60s
+//       [-Dloadtest.warmup=10s -Dloadtest.employees=10000 -Dloadtest.departments=50 -Dloadtest.users=20
+//        -Dloadtest.max-error-rate=0.01 -Dloadtest.profiles=virtual-threads]
+//
+// The report is printed and written with one .hgrm latency distribution per endpoint to target/loadtest.
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class MixedWorkloadLoadTest {
+
+    private final AtomicLong createdEmployees = new AtomicLong();
+
+    @Test
+    void mixedWorkload() throws Exception {
+        int clients = Integer.getInteger("loadtest.clients", 50);
+        Duration warmUp = duration("loadtest.warmup", "10s");
+        Duration duration = duration("loadtest.duration", "30s");
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        String[] profiles = System.getProperty("loadtest.profiles", "").isBlank()
+                ? new String[0]
+                : System.getProperty("loadtest.profiles").split(",");
+
+        try (LoadTestEnvironment environment = LoadTestEnvironment.start(profiles)) {
+            Dataset dataset = environment.seed(
+                    Integer.getInteger("loadtest.departments", 50),
+                    Integer.getInteger("loadtest.employees", 10_000),
+                    Integer.getInteger("loadtest.users", 20));
+            List<String> tokens = dataset.usernames().stream()
+                    .map(username -> environment.login(username, LoadTestEnvironment.PASSWORD))
+                    .toList();
+
+            LoadGenerator generator = new LoadGenerator(environment.httpClient(), workload(environment, dataset));
+            generator.run(clients, warmUp, tokens);
+            LoadReport report = generator.run(clients, duration, tokens);
+
+            System.out.println(report.format());
+            report.write(Path.of("target", "loadtest"));
+            assertTrue(report.total().errorRate() <= maxErrorRate,
+                    "Error rate " + report.total().errorRate() + " exceeds " + maxErrorRate);
+        }
+    }
+
+    private List<Operation> workload(LoadTestEnvironment environment, Dataset dataset) {
+        List<SeededEmployee> employees = dataset.employees();
+        List<Long> departmentIds = dataset.departmentIds();
+        List<Long> userIds = dataset.userIds();
+        List<String> usernames = dataset.usernames();
+        return List.of(
+                new Operation("GET /api/employees/page", 20, (random, token) ->
+                        get(environment, "/api/employees/page?size=50", token)),
+                new Operation("GET /api/employees/{id}", 20, (random, token) ->
+                        get(environment, "/api/employees/" + employees.get(random.nextInt(employees.size())).id(), token)),
+                new Operation("GET /api/employees/search", 10, (random, token) ->
+                        get(environment, "/api/employees/search?q=last" + random.nextInt(1, 1_000), token)),
+                new Operation("GET /api/departments", 10, (random, token) ->
+                        get(environment, "/api/departments", token)),
+                new Operation("GET /api/departments/{id}", 10, (random, token) ->
+                        get(environment, "/api/departments/" + departmentIds.get(random.nextInt(departmentIds.size())), token)),
+                new Operation("GET /api/users/{id}", 5, (random, token) ->
+                        get(environment, "/api/users/" + userIds.get(random.nextInt(userIds.size())), token)),
+                new Operation("GET /api/users", 2, (random, token) ->
+                        get(environment, "/api/users", token)),
+                new Operation("GET /api/stats", 5, (random, token) ->
+                        get(environment, "/api/stats", token)),
+                new Operation("PUT /api/employees/{id}", 10, (random, token) -> {
+                    SeededEmployee employee = employees.get(random.nextInt(employees.size()));
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("firstName", "Updated" + random.nextInt(1_000));
+                    body.put("lastName", "Last" + employee.id());
+                    body.put("email", employee.email());
+                    body.put("departmentId", departmentIds.get(random.nextInt(departmentIds.size())));
+                    return send(environment, "PUT", "/api/employees/" + employee.id(), token, body);
+                }),
+                new Operation("POST /api/employees", 5, (random, token) -> {
+                    long number = createdEmployees.incrementAndGet();
+                    Map<String, Object> body = new HashMap<>();
+                    body.put("firstName", "Created" + number);
+                    body.put("lastName", "Load");
+                    body.put("email", "created" + number + "-" + System.nanoTime() + "@example.com");
+                    body.put("departmentId", departmentIds.get(random.nextInt(departmentIds.size())));
+                    return send(environment, "POST", "/api/employees", token, body);
+                }),
+                new Operation("POST /api/auth/login", 1, (random, token) ->
+                        send(environment, "POST", "/api/auth/login", null, Map.of(
+                                "username", usernames.get(random.nextInt(usernames.size())),
+                                "password", LoadTestEnvironment.PASSWORD))));
+    }
+
+    private static HttpRequest get(LoadTestEnvironment environment, String path, String token) {
+        return HttpRequest.newBuilder(environment.uri(path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest send(LoadTestEnvironment environment, String method, String path, String token,
+                                    Map<String, Object> body) {
+        try {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(environment.uri(path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .method(method, HttpRequest.BodyPublishers.ofString(environment.objectMapper().writeValueAsString(body)));
+            if (token != null) {
+                builder.header("Authorization", "Bearer " + token);
+            }
+            return builder.build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return Duration.parse("PT" + System.getProperty(property, defaultValue));
+    }
+}
@@ -0,0 +1,124 @@
+package net.javaguides.ems.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.entity.Department;
+import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.entity.Role;
+import net.javaguides.ems.entity.RoleName;
+import net.javaguides.ems.entity.User;
+import net.javaguides.ems.mapper.EmployeeMapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class EmployeeRepositoryQueryCountTest {
+
+    private static final int EMPLOYEES = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstEmployeeId;
+
+    @BeforeEach
+    void setUp() {
+        Role employeeRole = entityManager.persist(Role.builder().name(RoleName.ROLE_EMPLOYEE).build());
+        Role managerRole = entityManager.persist(Role.builder().name(RoleName.ROLE_MANAGER).build());
+        Department[] departments = {
+                entityManager.persist(newDepartment("IT")),
+                entityManager.persist(newDepartment("RH")),
+                entityManager.persist(newDepartment("Finance"))
+        };
+
+        for (int i = 0; i < EMPLOYEES; i++) {
+            User user = entityManager.persist(User.builder()
+                    .username("user" + i)
+                    .email("user" + i + "@equipepro.com")
+                    .password("secret")
+                    .roles(i % 2 == 0 ? Set.of(employeeRole) : Set.of(employeeRole, managerRole))
+                    .build());
+
+            Employee employee = new Employee();
+            employee.setFirstName("First" + i);
+            employee.setLastName("Last" + i);
+            employee.setEmail("employee" + i + "@equipepro.com");
+            employee.setDepartment(departments[i % departments.length]);
+            employee.setUser(user);
+            employee = entityManager.persist(employee);
+            if (firstEmployeeId == null) {
+                firstEmployeeId = employee.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findWithDetailsByIdInLoadsEmployeesInOneStatement() {
+        List<Long> ids = employeeRepository.findIdsAfter(0, PageRequest.of(0, EMPLOYEES));
+        statistics.clear();
+        List<EmployeeDto> employees = mapAll(employeeRepository.findWithDetailsByIdIn(ids));
+
+        assertThat(employees).hasSize(EMPLOYEES);
+        assertThat(employees).allSatisfy(employee -> {
+            assertThat(employee.getDepartmentName()).isNotNull();
+            assertThat(employee.getRoles()).isNotEmpty();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findWithDetailsByIdLoadsEmployeeInOneStatement() {
+        EmployeeDto employee = EmployeeMapper.mapToEmployeeDto(employeeRepository.findWithDetailsById(firstEmployeeId).orElseThrow());
+
+        assertThat(employee.getDepartmentName()).isEqualTo("IT");
+        assertThat(employee.getRoles()).containsExactly("ROLE_EMPLOYEE");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void changesPageBatchesRolesInsteadOfOneQueryPerEmployee() {
+        List<EmployeeDto> page = mapAll(employeeRepository.findChangesAfter(-1, 0, PageRequest.of(0, 20)));
+
+        assertThat(page).hasSize(20);
+        assertThat(page).allSatisfy(employee -> assertThat(employee.getRoles()).isNotEmpty());
+        // page query + one batched roles query (hibernate.default_batch_fetch_size=50)
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    private static List<EmployeeDto> mapAll(List<Employee> employees) {
+        return employees.stream().map(EmployeeMapper::mapToEmployeeDto).collect(Collectors.toList());
+    }
+
+    private static Department newDepartment(String name) {
+        Department department = new Department();
+        department.setName(name);
+        return department;
+    }
+}
@@ -0,0 +1,60 @@
+package net.javaguides.ems.search;
+
+import net.javaguides.ems.dto.CreateUserRequest;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.UserDto;
+import net.javaguides.ems.service.EmployeeService;
+import net.javaguides.ems.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class EmployeeSearchIndexTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @Test
+    void accountChangesReachSearchResults() {
+        String email = "search" + System.nanoTime() + "@equipepro.com";
+        EmployeeDto employee = employeeService.creatEmployee(new EmployeeDto(null, "First", "Search", email, null, null, null, null, null));
+
+        String username = "search" + System.nanoTime();
+        UserDto user = userService.createUser(new CreateUserRequest(username, username + "@equipepro.com", "secret123",
+                null, null, Set.of("ROLE_EMPLOYEE"), employee.getId()));
+        assertThat(found(email).getUsername()).isEqualTo(username);
+        assertThat(found(email).getRoles()).containsExactly("ROLE_EMPLOYEE");
+
+        UserDto roles = new UserDto();
+        roles.setRoles(Set.of("ROLE_MANAGER"));
+        userService.updateUser(user.getId(), roles, null);
+        assertThat(found(email).getRoles()).containsExactly("ROLE_MANAGER");
+    }
+
+    @Test
+    void rebuildMatchesTheDirectory() {
+        String email = "rebuild" + System.nanoTime() + "@equipepro.com";
+        employeeService.creatEmployee(new EmployeeDto(null, "First", "Rebuild", email, null, null, null, null, null));
+
+        employeeSearchIndex.rebuild();
+
+        assertThat(found(email).getLastName()).isEqualTo("Rebuild");
+    }
+
+    private EmployeeDto found(String email) {
+        return employeeService.searchEmployees(email, 1).get(0);
+    }
+}
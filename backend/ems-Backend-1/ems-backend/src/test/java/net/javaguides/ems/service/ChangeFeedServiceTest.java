@@ -0,0 +1,150 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.ChangeSetDto;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.exception.SyncTokenExpiredException;
+import net.javaguides.ems.repository.ChangeSequenceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class ChangeFeedServiceTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeBatchService employeeBatchService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private ChangeSequenceRepository changeSequenceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private String employeeToken;
+    private String departmentToken;
+
+    // Other tests share the database, so each test starts from the current end of the feeds
+    @BeforeEach
+    void setUp() {
+        employeeToken = drainEmployees(null);
+        ChangeSetDto<DepartmentDto> departments;
+        departmentToken = null;
+        do {
+            departments = changeFeedService.getDepartmentChanges(departmentToken, 5000);
+            departmentToken = departments.getNextToken();
+        } while (departments.isHasMore());
+    }
+
+    @Test
+    void returnsOnlyRowsWrittenSinceTheTokenAndTombstonesForDeletions() {
+        DepartmentDto department = newDepartment();
+        EmployeeDto kept = newEmployee(department.getId());
+        EmployeeDto removed = newEmployee(department.getId());
+        kept.setFirstName("Renamed");
+        employeeService.updateEmployee(kept.getId(), kept, null);
+        employeeService.deleteEmployee(removed.getId());
+
+        ChangeSetDto<EmployeeDto> changes = changeFeedService.getEmployeeChanges(employeeToken, 100);
+
+        assertThat(changes.getUpserted()).extracting(EmployeeDto::getId).containsExactly(kept.getId());
+        assertThat(changes.getUpserted().get(0).getFirstName()).isEqualTo("Renamed");
+        assertThat(changes.getDeleted()).containsExactly(removed.getId());
+        assertThat(changes.isHasMore()).isFalse();
+
+        ChangeSetDto<EmployeeDto> nothingNew = changeFeedService.getEmployeeChanges(changes.getNextToken(), 100);
+        assertThat(nothingNew.getUpserted()).isEmpty();
+        assertThat(nothingNew.getDeleted()).isEmpty();
+        assertThat(nothingNew.getNextToken()).isEqualTo(changes.getNextToken());
+    }
+
+    @Test
+    void departmentRenameResendsItsEmployees() {
+        DepartmentDto department = newDepartment();
+        EmployeeDto employee = newEmployee(department.getId());
+        String token = drainEmployees(employeeToken);
+
+        department.setName(department.getName() + "-renamed");
+        departmentService.updateDepartment(department.getId(), department, null);
+
+        ChangeSetDto<EmployeeDto> employees = changeFeedService.getEmployeeChanges(token, 100);
+        assertThat(employees.getUpserted()).singleElement().satisfies(row -> {
+            assertThat(row.getId()).isEqualTo(employee.getId());
+            assertThat(row.getDepartmentName()).isEqualTo(department.getName());
+        });
+        assertThat(changeFeedService.getDepartmentChanges(departmentToken, 100).getUpserted())
+                .extracting(DepartmentDto::getId).containsExactly(department.getId());
+    }
+
+    @Test
+    void pagesThroughChangesWrittenInOneTransaction() {
+        Long departmentId = newDepartment().getId();
+        employeeBatchService.createEmployees(IntStream.range(0, 5)
+                .mapToObj(i -> new EmployeeDto(null, "First" + i, "Sync", unique("sync") + "@equipepro.com",
+                        departmentId, null, null, null, null))
+                .toList());
+
+        ChangeSetDto<EmployeeDto> first = changeFeedService.getEmployeeChanges(employeeToken, 3);
+        ChangeSetDto<EmployeeDto> second = changeFeedService.getEmployeeChanges(first.getNextToken(), 3);
+
+        assertThat(first.getUpserted()).hasSize(3);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.getUpserted()).hasSize(2);
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(second.getUpserted()).extracting(EmployeeDto::getId)
+                .doesNotContainAnyElementsOf(first.getUpserted().stream().map(EmployeeDto::getId).toList());
+    }
+
+    @Test
+    void tokenOlderThanPurgedTombstonesIsRejected() {
+        newEmployee(null);
+        // Rolled back so the shared database keeps serving old tokens to the other tests
+        transactionTemplate.executeWithoutResult(status -> {
+            changeSequenceRepository.advancePrunedThrough(changeSequenceRepository.findLastSeq());
+            assertThatThrownBy(() -> changeFeedService.getEmployeeChanges(employeeToken, 100))
+                    .isInstanceOf(SyncTokenExpiredException.class);
+            status.setRollbackOnly();
+        });
+    }
+
+    private String drainEmployees(String token) {
+        ChangeSetDto<EmployeeDto> changes;
+        do {
+            changes = changeFeedService.getEmployeeChanges(token, 5000);
+            token = changes.getNextToken();
+        } while (changes.isHasMore());
+        return token;
+    }
+
+    private DepartmentDto newDepartment() {
+        return departmentService.createDepartment(new DepartmentDto(null, unique("Sync-"), null, null, null, null));
+    }
+
+    private EmployeeDto newEmployee(Long departmentId) {
+        return employeeService.creatEmployee(new EmployeeDto(null, "First", "Sync", unique("sync") + "@equipepro.com",
+                departmentId, null, null, null, null));
+    }
+
+    private static String unique(String prefix) {
+        return prefix + System.nanoTime();
+    }
+}
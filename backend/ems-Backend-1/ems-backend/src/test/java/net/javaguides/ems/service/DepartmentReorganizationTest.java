@@ -0,0 +1,103 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.diagnostics.ExpectedQueries;
+import net.javaguides.ems.dto.BatchItemResultDto;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.ReassignEmployeesRequest;
+import net.javaguides.ems.dto.ReassignResultDto;
+import net.javaguides.ems.entity.Employee;
+import net.javaguides.ems.repository.DepartmentRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class DepartmentReorganizationTest {
+
+    private static final int EMPLOYEES = 25;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeBatchService employeeBatchService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Long sourceId;
+    private Long targetId;
+    private List<Long> employeeIds;
+
+    @BeforeEach
+    void setUp() {
+        sourceId = newDepartment("Reorg-source-");
+        targetId = newDepartment("Reorg-target-");
+        employeeIds = employeeBatchService.createEmployees(IntStream.range(0, EMPLOYEES)
+                        .mapToObj(i -> new EmployeeDto(null, "First" + i, "Reorg", "reorg" + System.nanoTime() + "-" + i + "@equipepro.com",
+                                sourceId, null, null, null, null))
+                        .toList())
+                .getResults().stream().map(BatchItemResultDto::getId).toList();
+    }
+
+    @Test
+    @ExpectedQueries(max = 15)
+    void reassignMovesListedEmployeesInOneStatement() {
+        ReassignResultDto result = departmentService.reassignEmployees(sourceId,
+                new ReassignEmployeesRequest(targetId, employeeIds.subList(0, 10)));
+
+        assertThat(result.getMovedEmployees()).isEqualTo(10);
+        // two department lookups (one from the second-level cache), the ids to move, the bulk UPDATE, one batched
+        // department touch, the placeholder stamp at commit (employees, departments), the directory projection
+        // (two reads, one batched UPDATE), under the sequence lock the bump, its read and the placeholder swap in
+        // employees, the directory and departments, and the check below
+        assertThat(employeeRepository.findAllById(employeeIds)).allSatisfy(employee -> {
+            boolean listed = employeeIds.indexOf(employee.getId()) < 10;
+            assertThat(employee.getDepartment().getId()).isEqualTo(listed ? targetId : sourceId);
+            assertThat(employee.getVersion()).isEqualTo(listed ? 1L : 0L);
+        });
+    }
+
+    @Test
+    void listedEmployeesOutsideTheSourceAreNotRestamped() {
+        Employee outsider = employeeRepository.findById(employeeIds.get(0)).orElseThrow();
+        departmentService.reassignEmployees(sourceId, new ReassignEmployeesRequest(targetId, List.of(outsider.getId())));
+        long stamped = employeeRepository.findById(outsider.getId()).orElseThrow().getChangeSeq();
+
+        // Already in the target department: nothing to move, so delta-sync clients must not download it again
+        ReassignResultDto result = departmentService.reassignEmployees(sourceId,
+                new ReassignEmployeesRequest(targetId, List.of(outsider.getId(), employeeIds.get(1))));
+
+        assertThat(result.getMovedEmployees()).isEqualTo(1);
+        assertThat(employeeRepository.findById(outsider.getId()).orElseThrow().getChangeSeq()).isEqualTo(stamped);
+        assertThat(employeeRepository.findById(employeeIds.get(1)).orElseThrow().getChangeSeq()).isGreaterThan(stamped);
+    }
+
+    @Test
+    void mergeMovesEveryoneAndDeletesTheSource() {
+        ReassignResultDto result = departmentService.mergeInto(sourceId, targetId);
+
+        assertThat(result.getMovedEmployees()).isEqualTo(EMPLOYEES);
+        assertThat(result.isSourceDeleted()).isTrue();
+        assertThat(departmentRepository.existsById(sourceId)).isFalse();
+        assertThat(employeeRepository.findAllById(employeeIds))
+                .allSatisfy(employee -> assertThat(employee.getDepartment().getId()).isEqualTo(targetId));
+    }
+
+    private Long newDepartment(String prefix) {
+        return departmentService.createDepartment(new DepartmentDto(null, prefix + System.nanoTime(), null, null, null, null)).getId();
+    }
+}
@@ -0,0 +1,146 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.diagnostics.ExpectedQueries;
+import net.javaguides.ems.dto.BatchItemResultDto;
+import net.javaguides.ems.dto.BatchResultDto;
+import net.javaguides.ems.dto.ChangeSetDto;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeBatchUpdateDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.repository.EmployeeDirectoryRepository;
+import net.javaguides.ems.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class EmployeeBatchServiceTest {
+
+    private static final int EMPLOYEES = 20;
+
+    @Autowired
+    private EmployeeBatchService employeeBatchService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeDirectoryRepository employeeDirectoryRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long departmentId;
+    private List<Long> employeeIds;
+
+    @BeforeEach
+    void setUp() {
+        departmentId = departmentService.createDepartment(new DepartmentDto(null, "Batch-" + System.nanoTime(), null, null, null, null)).getId();
+        BatchResultDto created = employeeBatchService.createEmployees(IntStream.range(0, EMPLOYEES)
+                .mapToObj(i -> new EmployeeDto(null, "First" + i, "Batch", "batch" + System.nanoTime() + "-" + i + "@equipepro.com",
+                        null, null, null, null, null))
+                .toList());
+        employeeIds = created.getResults().stream().map(BatchItemResultDto::getId).toList();
+    }
+
+    @Test
+    // lookups, one batched UPDATE, then at commit the placeholder stamp (one UPDATE), the directory projection
+    // (one read, the employees coming from the persistence context, one batched UPDATE) and, under the sequence
+    // lock, the bump, its read and the swap of the placeholder in employees and the directory
+    @ExpectedQueries(max = 11, maxRepeats = 1)
+    void updatesAreFlushedAsOneJdbcBatch() {
+        List<EmployeeBatchUpdateDto> updates = new ArrayList<>();
+        for (Long id : employeeIds) {
+            updates.add(update(id, "Moved", null));
+        }
+        updates.add(update(-1L, "Missing", null));
+
+        BatchResultDto result = employeeBatchService.updateEmployees(updates);
+
+        assertThat(result.getSucceeded()).isEqualTo(EMPLOYEES);
+        assertThat(result.getResults().get(EMPLOYEES).getStatus()).isEqualTo(404);
+        assertThat(result.getResults().get(0).getEmployee().getDepartmentId()).isEqualTo(departmentId);
+    }
+
+    @Test
+    void staleItemsAreRejectedWithoutFailingTheBatch() {
+        Long fresh = employeeIds.get(0);
+        Long stale = employeeIds.get(1);
+        String freshEtag = '"' + employeeService.getEmployeeVersion(fresh).getEtag() + '"';
+        String staleEtag = '"' + employeeService.getEmployeeVersion(stale).getEtag() + '"';
+        employeeBatchService.updateEmployees(List.of(update(stale, "Concurrent", null)));
+
+        BatchResultDto result = employeeBatchService.updateEmployees(List.of(update(fresh, "Checked", freshEtag), update(stale, "Late", staleEtag)));
+
+        assertThat(result.getResults()).extracting(BatchItemResultDto::getStatus).containsExactly(200, 412);
+        assertThat(employeeRepository.findById(fresh).orElseThrow().getFirstName()).isEqualTo("Checked");
+        assertThat(employeeRepository.findById(stale).orElseThrow().getFirstName()).isEqualTo("Concurrent");
+    }
+
+    @Test
+    void deletedEmployeesAreGoneForTheRestOfTheTransaction() {
+        Long id = employeeIds.get(2);
+        String token = drainEmployees();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            employeeBatchService.deleteEmployees(List.of(id));
+
+            assertThat(employeeRepository.findById(id)).isEmpty();
+            assertThat(employeeRepository.findWithDetailsByIdIn(List.of(id))).isEmpty();
+            assertThat(changeFeedService.getEmployeeChanges(token, 100).getUpserted()).extracting(EmployeeDto::getId).doesNotContain(id);
+        });
+
+        assertThat(employeeDirectoryRepository.existsById(id)).isFalse();
+        ChangeSetDto<EmployeeDto> changes = changeFeedService.getEmployeeChanges(token, 100);
+        assertThat(changes.getUpserted()).extracting(EmployeeDto::getId).doesNotContain(id);
+        assertThat(changes.getDeleted()).containsExactly(id);
+    }
+
+    @Test
+    void invalidItemsAreReportedWithoutFailingTheBatch() {
+        String taken = employeeRepository.findById(employeeIds.get(0)).orElseThrow().getEmail();
+        BatchResultDto created = employeeBatchService.createEmployees(List.of(
+                new EmployeeDto(null, "New", "Batch", "new-" + System.nanoTime() + "@equipepro.com", departmentId, null, null, null, null),
+                new EmployeeDto(null, "Dup", "Batch", taken, null, null, null, null, null)));
+        assertThat(created.getResults()).extracting(BatchItemResultDto::getStatus).containsExactly(201, 400);
+
+        Long newId = created.getResults().get(0).getId();
+        BatchResultDto deleted = employeeBatchService.deleteEmployees(List.of(newId, employeeIds.get(1), -1L));
+        assertThat(deleted.getResults()).extracting(BatchItemResultDto::getStatus).containsExactly(204, 204, 404);
+        assertThat(employeeRepository.findAllById(List.of(newId, employeeIds.get(1)))).isEmpty();
+    }
+
+    private String drainEmployees() {
+        String token = null;
+        ChangeSetDto<EmployeeDto> changes;
+        do {
+            changes = changeFeedService.getEmployeeChanges(token, 5000);
+            token = changes.getNextToken();
+        } while (changes.isHasMore());
+        return token;
+    }
+
+    private EmployeeBatchUpdateDto update(Long id, String firstName, String ifMatch) {
+        return new EmployeeBatchUpdateDto(new EmployeeDto(id, firstName, "Batch", firstName.toLowerCase() + "-" + id + "@equipepro.com",
+                departmentId, null, null, null, null), ifMatch);
+    }
+}
@@ -0,0 +1,107 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.diagnostics.ExpectedQueries;
+import net.javaguides.ems.dto.CreateUserRequest;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.UserDto;
+import net.javaguides.ems.entity.EmployeeDirectoryEntry;
+import net.javaguides.ems.repository.EmployeeDirectoryRepository;
+import net.javaguides.ems.sync.EmployeeDirectoryProjector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class EmployeeDirectoryTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EmployeeDirectoryRepository employeeDirectoryRepository;
+
+    @Autowired
+    private EmployeeDirectoryProjector employeeDirectoryProjector;
+
+    private DepartmentDto department;
+    private EmployeeDto employee;
+
+    @BeforeEach
+    void setUp() {
+        department = departmentService.createDepartment(new DepartmentDto(null, "Directory-" + System.nanoTime(), null, null, null, null));
+        employee = employeeService.creatEmployee(new EmployeeDto(null, "First", "Directory", "directory" + System.nanoTime() + "@equipepro.com",
+                department.getId(), null, null, null, null));
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void detailIsOneSingleTableRead() {
+        EmployeeDto read = employeeService.getEmployeeById(employee.getId());
+
+        assertThat(read.getDepartmentName()).isEqualTo(department.getName());
+        assertThat(read.getRoles()).isNull();
+    }
+
+    @Test
+    void followsChangesToDepartmentsAndAccounts() {
+        String etag = employeeService.getEmployeesVersion().getEtag();
+
+        department.setName(department.getName() + "-renamed");
+        departmentService.updateDepartment(department.getId(), department, null);
+        String username = "directory" + System.nanoTime();
+        UserDto user = userService.createUser(new CreateUserRequest(username, username + "@equipepro.com", "secret123",
+                null, null, Set.of("ROLE_MANAGER"), employee.getId()));
+
+        EmployeeDto read = employeeService.getEmployeeById(employee.getId());
+        assertThat(read.getDepartmentName()).isEqualTo(department.getName());
+        assertThat(read.getUsername()).isEqualTo(username);
+        assertThat(read.getRoles()).containsExactly("ROLE_MANAGER");
+        assertThat(employeeService.getEmployeesVersion().getEtag()).isNotEqualTo(etag);
+
+        UserDto roles = new UserDto();
+        roles.setRoles(Set.of("ROLE_ADMIN", "ROLE_EMPLOYEE"));
+        userService.updateUser(user.getId(), roles, null);
+        assertThat(employeeService.getEmployeeById(employee.getId()).getRoles()).containsExactlyInAnyOrder("ROLE_ADMIN", "ROLE_EMPLOYEE");
+    }
+
+    @Test
+    void staleRowsAreRepairedByTheStartupCheck() {
+        EmployeeDirectoryEntry stale = employeeDirectoryRepository.findById(employee.getId()).orElseThrow();
+        stale.setFirstName("Stale");
+        stale.setChangeSeq(0);
+        employeeDirectoryRepository.save(stale);
+
+        employeeDirectoryProjector.rebuildIfIncomplete();
+
+        assertThat(employeeService.getEmployeeById(employee.getId()).getFirstName()).isEqualTo("First");
+    }
+
+    @Test
+    void rolledBackWritesLeaveTheDirectoryUntouched() {
+        EmployeeDto update = employeeService.getEmployeeById(employee.getId());
+        update.setFirstName("Changed");
+        update.setDepartmentId(-1L);
+
+        assertThatThrownBy(() -> employeeService.updateEmployee(employee.getId(), update, null))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(employeeService.getEmployeeById(employee.getId()).getFirstName()).isEqualTo("First");
+
+        employeeService.deleteEmployee(employee.getId());
+        assertThat(employeeDirectoryRepository.existsById(employee.getId())).isFalse();
+    }
+}
@@ -0,0 +1,79 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.dto.ImportErrorDto;
+import net.javaguides.ems.dto.ImportResultDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class EmployeeImportServiceTest {
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Test
+    void duplicatesDifferingOnlyInCaseAreRejectedRowByRow() {
+        String prefix = "import" + System.nanoTime();
+        String csv = "firstName,lastName,email,username,password\n" +
+                "A,Import," + prefix + "-a@equipepro.com," + prefix + "a,secret\n" +
+                "B,Import," + prefix.toUpperCase() + "-A@EQUIPEPRO.COM,,\n" +
+                "C,Import," + prefix + "-c@equipepro.com," + prefix.toUpperCase() + "A,secret\n" +
+                "D,Import," + prefix + "-d@equipepro.com,,\n";
+
+        ImportResultDto result = employeeImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportErrorDto::getLine).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void quotedFieldsMaySpanLines() {
+        String prefix = "multiline" + System.nanoTime();
+        String csv = "firstName,lastName,email\n" +
+                "\"Anne\nMarie\",\"Import, \"\"Jr\"\"\"," + prefix + "-a@equipepro.com\n" +
+                "Bob,Import,not-an-email\n";
+
+        ImportResultDto result = employeeImportService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        // Line numbers stay those of the file
+        assertThat(result.getErrors()).extracting(ImportErrorDto::getLine).containsExactly(4L);
+        assertThat(employeeService.searchEmployees(prefix, 1)).singleElement().satisfies(employee -> {
+            assertThat(employee.getFirstName()).isEqualTo("Anne\nMarie");
+            assertThat(employee.getLastName()).isEqualTo("Import, \"Jr\"");
+        });
+    }
+
+    @Test
+    void rowsRepeatingAnEarlierChunkAreRejectedByTheExistenceCheck() {
+        String prefix = "chunk" + System.nanoTime();
+        List<EmployeeDto> employees = new ArrayList<>();
+        // One more row than a chunk, repeating the first email
+        for (int i = 0; i < 1000; i++) {
+            employees.add(new EmployeeDto(null, "First" + i, "Chunk", prefix + "-" + i + "@equipepro.com", null, null, null, null, null));
+        }
+        employees.add(new EmployeeDto(null, "Again", "Chunk", prefix + "-0@equipepro.com", null, null, null, null, null));
+
+        ImportResultDto result = employeeImportService.importEmployees(employees);
+
+        assertThat(result.getImported()).isEqualTo(1000);
+        assertThat(result.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getLine()).isEqualTo(1001);
+            assertThat(error.getMessage()).startsWith("Employee email already exists");
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.exception.PreconditionFailedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class OptimisticConcurrencyTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Test
+    void updateWithStaleIfMatchIsRejected() {
+        EmployeeDto employee = employeeService.creatEmployee(
+                new EmployeeDto(null, "Ada", "Lovelace", "ada@equipepro.com", null, null, null, null, null));
+        String etag = quoted(employeeService.getEmployeeVersion(employee.getId()).getEtag());
+
+        employee.setLastName("King");
+        employeeService.updateEmployee(employee.getId(), employee, etag);
+
+        // A second writer still holding the first ETag must not overwrite the change
+        employee.setLastName("Byron");
+        assertThatThrownBy(() -> employeeService.updateEmployee(employee.getId(), employee, etag))
+                .isInstanceOf(PreconditionFailedException.class);
+        assertThat(employeeService.getEmployeeById(employee.getId()).getLastName()).isEqualTo("King");
+    }
+
+    @Test
+    void renamingTheDepartmentInvalidatesEmployeeETags() {
+        DepartmentDto department = departmentService.createDepartment(new DepartmentDto(null, "Recherche", null, null, null, null));
+        EmployeeDto employee = employeeService.creatEmployee(
+                new EmployeeDto(null, "Alan", "Turing", "alan@equipepro.com", department.getId(), null, null, null, null));
+        String employeeEtag = quoted(employeeService.getEmployeeVersion(employee.getId()).getEtag());
+        String departmentEtag = quoted(departmentService.getDepartmentVersion(department.getId()).getEtag());
+
+        department.setName("R&D");
+        departmentService.updateDepartment(department.getId(), department, departmentEtag);
+
+        assertThat(employeeService.getEmployeeVersion(employee.getId()).matches(employeeEtag)).isFalse();
+        assertThatThrownBy(() -> departmentService.updateDepartment(department.getId(), department, departmentEtag))
+                .isInstanceOf(PreconditionFailedException.class);
+    }
+
+    private static String quoted(String etag) {
+        return '"' + etag + '"';
+    }
+}
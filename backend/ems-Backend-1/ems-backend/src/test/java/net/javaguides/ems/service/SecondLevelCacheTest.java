@@ -0,0 +1,88 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.diagnostics.ExpectedQueries;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.repository.DepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    private DepartmentDto department;
+    private String username;
+
+    @BeforeEach
+    void setUp() {
+        long suffix = System.nanoTime();
+        department = departmentService.createDepartment(new DepartmentDto(null, "Cached-" + suffix, null, null, null, null));
+        username = "cached" + suffix;
+        employeeImportService.importEmployees(List.of(new EmployeeDto(null, "Cached", "User", username + "@equipepro.com",
+                department.getId(), null, username, "secret123", Set.of("ROLE_EMPLOYEE"))));
+
+        // Warm the entity, collection and query regions
+        departmentRepository.findById(department.getId()).orElseThrow();
+        departmentRepository.findByName(department.getName()).orElseThrow();
+        userDetailsService.loadUserByUsername(username);
+    }
+
+    @Test
+    @ExpectedQueries(max = 0)
+    void departmentsAreServedFromTheCache() {
+        assertThat(departmentRepository.findById(department.getId()).orElseThrow().getName()).isEqualTo(department.getName());
+        assertThat(departmentRepository.findByName(department.getName()).orElseThrow().getId()).isEqualTo(department.getId());
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void userAndRolesAreServedFromTheCache() {
+        // Only the inverse employee side of User is still loaded from the database
+        assertThat(userDetailsService.loadUserByUsername(username).getAuthorities())
+                .extracting(Object::toString).containsExactly("ROLE_EMPLOYEE");
+    }
+
+    @Test
+    void updatesReplaceTheCachedEntity() {
+        departmentService.updateDepartment(department.getId(),
+                new DepartmentDto(null, department.getName() + "-renamed", null, null, null, null), null);
+
+        assertThat(departmentRepository.findById(department.getId()).orElseThrow().getName()).endsWith("-renamed");
+        assertThat(departmentRepository.findByName(department.getName())).isEmpty();
+    }
+
+    @Test
+    void jdbcImportEvictsCachedMissingUsernames() {
+        String imported = username + "-late";
+        assertThatThrownBy(() -> userDetailsService.loadUserByUsername(imported)).isInstanceOf(UsernameNotFoundException.class);
+
+        employeeImportService.importEmployees(List.of(new EmployeeDto(null, "Late", "User", imported + "@equipepro.com",
+                null, null, imported, "secret123", Set.of("ROLE_EMPLOYEE"))));
+
+        assertThat(userDetailsService.loadUserByUsername(imported).getUsername()).isEqualTo(imported);
+    }
+}
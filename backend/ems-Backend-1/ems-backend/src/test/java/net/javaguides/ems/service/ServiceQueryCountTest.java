@@ -0,0 +1,146 @@
+package net.javaguides.ems.service;
+
+import net.javaguides.ems.diagnostics.ExpectedQueries;
+import net.javaguides.ems.dto.DepartmentDto;
+import net.javaguides.ems.dto.EmployeeDto;
+import net.javaguides.ems.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement budgets for the read paths: a lazy association touched per row shows up as a repeated
+// statement shape and fails the build.
+@SpringBootTest
+@ActiveProfiles("loadtest")
+class ServiceQueryCountTest {
+
+    private static final int EMPLOYEES = 30;
+    private static final String FIRST_EMAIL = "employee0@equipepro.com";
+    // One seeded employee per department (IT, RH, Finance)
+    private static final List<String> DEPARTMENT_EMAILS = List.of(FIRST_EMAIL, "employee1@equipepro.com", "employee2@equipepro.com");
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StatsService statsService;
+
+    @Autowired
+    private EmployeeImportService employeeImportService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Long employeeId;
+    private Long departmentId;
+    private Set<Long> seededDepartmentIds;
+
+    @BeforeEach
+    void setUp() {
+        // The loadtest context, and its database, is shared with other test classes
+        if (employeeRepository.findExistingEmails(List.of(FIRST_EMAIL)).isEmpty()) {
+            List<Long> departmentIds = List.of("IT", "RH", "Finance").stream()
+                    .map(name -> departmentService.createDepartment(new DepartmentDto(null, name, null, null, null, null)).getId())
+                    .toList();
+            StringBuilder csv = new StringBuilder("firstName,lastName,email,departmentId,username,password,roles\n");
+            for (int i = 0; i < EMPLOYEES; i++) {
+                csv.append("First").append(i).append(",Last").append(i).append(",employee").append(i).append("@equipepro.com,")
+                        .append(departmentIds.get(i % departmentIds.size())).append(',');
+                if (i % 3 == 0) {
+                    csv.append("user").append(i).append(",secret,ROLE_EMPLOYEE;ROLE_MANAGER");
+                } else {
+                    csv.append(",,");
+                }
+                csv.append('\n');
+            }
+            employeeImportService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+        }
+        EmployeeDto first = employeeService.getEmployeeById(employeeRepository.findIdsByEmailIn(List.of(FIRST_EMAIL)).get(0).getId());
+        employeeId = first.getId();
+        departmentId = first.getDepartmentId();
+        seededDepartmentIds = employeeRepository.findIdsByEmailIn(DEPARTMENT_EMAILS).stream()
+                .map(row -> employeeService.getEmployeeById(row.getId()).getDepartmentId())
+                .collect(Collectors.toSet());
+    }
+
+    @Test
+    @ExpectedQueries(max = 1, maxRepeats = 1)
+    void getAllEmployee() {
+        assertThat(employeeService.getAllEmployee()).hasSizeGreaterThanOrEqualTo(EMPLOYEES);
+    }
+
+    @Test
+    @ExpectedQueries(max = 1, maxRepeats = 1)
+    void getEmployeeById() {
+        assertThat(employeeService.getEmployeeById(employeeId).getDepartmentName()).isNotNull();
+    }
+
+    @Test
+    @ExpectedQueries(max = 2, maxRepeats = 1)
+    void getEmployeePage() {
+        assertThat(employeeService.getEmployeePage(null, 20).getContent()).hasSize(20);
+    }
+
+    @Test
+    @ExpectedQueries(max = 0)
+    void searchEmployeesUsesTheInMemoryIndex() {
+        assertThat(employeeService.searchEmployees("last1", 10)).isNotEmpty();
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void employeeValidatorIsSingleAggregateQuery() {
+        assertThat(employeeService.getEmployeesVersion().getEtag()).isNotEmpty();
+    }
+
+    @Test
+    @ExpectedQueries(max = 1)
+    void departmentValidatorIsSingleAggregateQuery() {
+        assertThat(departmentService.getDepartmentsVersion().getEtag()).isNotEmpty();
+    }
+
+    @Test
+    @ExpectedQueries(max = 2, maxRepeats = 1)
+    void getAllDepartments() {
+        // Other test classes add their own departments to the shared database
+        List<DepartmentDto> seeded = departmentService.getAllDepartments().stream()
+                .filter(department -> seededDepartmentIds.contains(department.getId()))
+                .toList();
+        assertThat(seeded).hasSize(3).allSatisfy(department ->
+                assertThat(department.getEmployeeCount()).isPositive());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2, maxRepeats = 1)
+    void getDepartmentById() {
+        assertThat(departmentService.getDepartmentById(departmentId).getEmployeeCount()).isPositive();
+    }
+
+    @Test
+    @ExpectedQueries(max = 3, maxRepeats = 1)
+    void getAllUsers() {
+        assertThat(userService.getAllUsers()).allSatisfy(user -> assertThat(user.getRoles()).isNotEmpty());
+    }
+
+    @Test
+    @ExpectedQueries(max = 2, maxRepeats = 1)
+    void getStats() {
+        assertThat(statsService.getStats().getRecentEmployees()).hasSize(5);
+    }
+}
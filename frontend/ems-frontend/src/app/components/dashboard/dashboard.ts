@@ -5,10 +5,9 @@ import { MatCardModule } from '@angular/material/card';
 import { MatButtonModule } from '@angular/material/button';
 import { MatIconModule } from '@angular/material/icon';
 import { MatProgressBarModule } from '@angular/material/progress-bar';
-import { EmployeeService } from '../../services/employee.service';
-import { DepartmentService } from '../../services/department.service';
+import { StatsService } from '../../services/stats.service';
 import { Employee } from '../../models/employee';
-import { Department } from '../../models/department';
+import { Stats } from '../../models/stats';
 
 interface StatCard {
   title: string;
@@ -34,13 +33,11 @@ interface DepartmentStat {
 export class Dashboard implements OnInit {
   stats: StatCard[] = [];
   recentEmployees: Employee[] = [];
-  departments: Department[] = [];
   departmentStats: DepartmentStat[] = [];
   loading = true;
 
   constructor(
-    private employeeService: EmployeeService,
-    private departmentService: DepartmentService,
+    private statsService: StatsService,
     private router: Router
   ) {}
 
@@ -51,49 +48,37 @@ export class Dashboard implements OnInit {
   loadDashboardData(): void {
     this.loading = true;
 
-    // Load both employees and departments
-    Promise.all([
-      this.employeeService.getAll().toPromise(),
-      this.departmentService.getAll().toPromise()
-    ]).then(([employees, departments]) => {
-      if (departments) {
-        this.departments = departments;
-      }
-      if (employees) {
-        this.calculateStats(employees, departments || []);
-        this.recentEmployees = employees.slice(-5).reverse();
-      }
-      if (departments) {
-        this.calculateDepartmentStats(employees || [], departments);
-      }
-      this.loading = false;
-    }).catch(() => {
-      this.loading = false;
+    // Aggregates are computed server-side, so the dashboard no longer downloads every employee
+    this.statsService.get().subscribe({
+      next: (stats) => {
+        this.calculateStats(stats);
+        this.calculateDepartmentStats(stats);
+        this.recentEmployees = stats.recentEmployees;
+        this.loading = false;
+      },
+      error: () => {
+        this.loading = false;
+      },
     });
   }
 
-  calculateStats(employees: Employee[], departments: Department[]): void {
-    const total = employees.length;
-    const domains = new Set(employees.map(e => e.email?.split('@')[1])).size;
-    const withDepartment = employees.filter(e => e.departmentId).length;
-    const departmentCount = departments.length;
-
+  calculateStats(stats: Stats): void {
     this.stats = [
       {
         title: 'Total Employés',
-        value: total,
+        value: stats.totalEmployees,
         icon: 'group',
         color: '#ff6b6b',
       },
       {
         title: 'Départements',
-        value: departmentCount,
+        value: stats.departmentCount,
         icon: 'business',
         color: '#7ee7c6',
       },
       {
         title: 'Employés Assignés',
-        value: withDepartment,
+        value: stats.assignedEmployees,
         icon: 'assignment_ind',
         color: '#ffd93d',
       },
@@ -106,29 +91,22 @@ export class Dashboard implements OnInit {
     ];
   }
 
-  calculateDepartmentStats(employees: Employee[], departments: Department[]): void {
-    const totalEmployees = employees.length;
+  calculateDepartmentStats(stats: Stats): void {
+    const totalEmployees = stats.totalEmployees;
 
-    // Calculate stats for each department
-    this.departmentStats = departments.map(dept => {
-      const employeeCount = employees.filter(emp => emp.departmentId === dept.id).length;
-      const percentage = totalEmployees > 0 ? (employeeCount / totalEmployees) * 100 : 0;
-
-      return {
-        id: dept.id,
-        name: dept.name,
-        employeeCount,
-        percentage
-      };
-    });
+    this.departmentStats = stats.departments.map(dept => ({
+      id: dept.id,
+      name: dept.name,
+      employeeCount: dept.employeeCount,
+      percentage: totalEmployees > 0 ? (dept.employeeCount / totalEmployees) * 100 : 0
+    }));
 
     // Add "Sans département" category
-    const unassignedCount = employees.filter(emp => !emp.departmentId).length;
-    if (unassignedCount > 0) {
+    if (stats.unassignedEmployees > 0) {
       this.departmentStats.push({
         name: 'Sans département',
-        employeeCount: unassignedCount,
-        percentage: totalEmployees > 0 ? (unassignedCount / totalEmployees) * 100 : 0
+        employeeCount: stats.unassignedEmployees,
+        percentage: totalEmployees > 0 ? (stats.unassignedEmployees / totalEmployees) * 100 : 0
       });
     }
 
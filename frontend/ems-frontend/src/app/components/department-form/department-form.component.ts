@@ -30,6 +30,7 @@ export class DepartmentFormComponent implements OnInit {
   form!: FormGroup;
   loading = false;
   submitted = false;
+  conflict = false;
   mode: 'create' | 'edit';
   department?: Department;
 
@@ -54,6 +55,21 @@ export class DepartmentFormComponent implements OnInit {
         [Validators.maxLength(500)]
       ]
     });
+
+    if (this.mode === 'edit') {
+      this.loadCurrent();
+    }
+  }
+
+  // Reads the current version so the update is sent with its ETag (If-Match)
+  loadCurrent(): void {
+    this.departmentService.getById(this.department!.id!).subscribe({
+      next: (department) => {
+        if (this.form.pristine) {
+          this.form.patchValue({ name: department.name, description: department.description });
+        }
+      }
+    });
   }
 
   get f() {
@@ -82,6 +98,7 @@ export class DepartmentFormComponent implements OnInit {
     }
 
     this.loading = true;
+    this.conflict = false;
     const departmentData: Department = this.form.value;
 
     const operation =
@@ -96,6 +113,11 @@ export class DepartmentFormComponent implements OnInit {
       error: (err) => {
         console.error('Error saving department:', err);
         this.loading = false;
+        if (err.status === 412) {
+          this.conflict = true;
+          this.form.markAsPristine();
+          this.loadCurrent();
+        }
       }
     });
   }
@@ -1,4 +1,6 @@
-import { Component, OnInit, ViewChild } from '@angular/core';
+import { Component, DestroyRef, OnInit, ViewChild, inject } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
+import { Subject, debounceTime } from 'rxjs';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router, RouterModule } from '@angular/router';
@@ -21,6 +23,9 @@ import { DepartmentFormComponent } from '../department-form/department-form.comp
 import { SelectionModel } from '@angular/cdk/collections';
 import { HasRoleDirective } from '../../directives/has-role.directive';
 import { AuthService } from '../../services/auth.service';
+import { ChangeEventsService } from '../../services/change-events.service';
+import { ChangeEvent } from '../../models/change-event';
+import { Employee } from '../../models/employee';
 
 @Component({
   selector: 'app-department-list',
@@ -53,6 +58,8 @@ export class DepartmentListComponent implements OnInit {
   selection = new SelectionModel<Department>(true, []);
   searchText = '';
   loading = false;
+  private reloads = new Subject<void>();
+  private destroyRef = inject(DestroyRef);
 
   @ViewChild(MatPaginator) paginator!: MatPaginator;
   @ViewChild(MatSort) sort!: MatSort;
@@ -62,13 +69,15 @@ export class DepartmentListComponent implements OnInit {
     private dialog: MatDialog,
     private snackBar: MatSnackBar,
     private router: Router,
-    private authService: AuthService
+    private authService: AuthService,
+    private changeEvents: ChangeEventsService
   ) {}
 
   ngOnInit(): void {
     this.setupColumns();
     this.load();
     this.setupFilter();
+    this.setupLiveUpdates();
   }
 
   setupColumns(): void {
@@ -90,6 +99,58 @@ export class DepartmentListComponent implements OnInit {
     };
   }
 
+  // Committed changes from any session are patched into the table instead of refetching it;
+  // employee events only move the per-department counts
+  setupLiveUpdates(): void {
+    this.reloads.pipe(debounceTime(500), takeUntilDestroyed(this.destroyRef)).subscribe(() => this.load());
+    this.changeEvents.changes<Department>('department')
+      .pipe(takeUntilDestroyed(this.destroyRef))
+      .subscribe(event => this.applyChange(event));
+    this.changeEvents.changes<Employee>('employee')
+      .pipe(takeUntilDestroyed(this.destroyRef))
+      .subscribe(event => this.applyEmployeeChange(event));
+  }
+
+  private applyChange(event: ChangeEvent<Department>): void {
+    const rows = this.dataSource.data;
+    const index = rows.findIndex(row => row.id === event.id);
+    switch (event.action) {
+      case 'created':
+        if (event.data && index < 0) this.dataSource.data = [...rows, event.data];
+        break;
+      case 'updated':
+        if (event.data && index >= 0) {
+          const updated = [...rows];
+          updated[index] = event.data;
+          this.dataSource.data = updated;
+        }
+        break;
+      case 'deleted':
+        if (index >= 0) {
+          this.selection.deselect(rows[index]);
+          this.dataSource.data = rows.filter(row => row.id !== event.id);
+        }
+        break;
+      case 'invalidated':
+        this.reloads.next();
+        break;
+    }
+  }
+
+  private applyEmployeeChange(event: ChangeEvent<Employee>): void {
+    if (event.action === 'invalidated') {
+      this.reloads.next();
+      return;
+    }
+    const from = event.action === 'created' ? undefined : event.previousDepartmentId;
+    const to = event.action === 'deleted' ? undefined : event.data?.departmentId;
+    if (from === to) return;
+    this.dataSource.data = this.dataSource.data.map(row => {
+      const delta = (row.id === to ? 1 : 0) - (row.id === from ? 1 : 0);
+      return delta ? { ...row, employeeCount: (row.employeeCount ?? 0) + delta } : row;
+    });
+  }
+
   load(): void {
     this.loading = true;
     this.departmentService.getAll().subscribe({
@@ -119,13 +180,11 @@ export class DepartmentListComponent implements OnInit {
   }
 
   openCreate() {
-    const ref = this.dialog.open(DepartmentFormComponent, { width: '520px', data: { mode: 'create' } });
-    ref.afterClosed().subscribe((res) => { if (res) this.load(); });
+    this.dialog.open(DepartmentFormComponent, { width: '520px', data: { mode: 'create' } });
   }
 
   openEdit(department: Department) {
-    const ref = this.dialog.open(DepartmentFormComponent, { width: '520px', data: { mode: 'edit', department } });
-    ref.afterClosed().subscribe((res) => { if (res) this.load(); });
+    this.dialog.open(DepartmentFormComponent, { width: '520px', data: { mode: 'edit', department } });
   }
 
   deleteDepartment(id: number | undefined, event?: Event) {
@@ -135,7 +194,6 @@ export class DepartmentListComponent implements OnInit {
     this.departmentService.delete(id).subscribe({
       next: () => {
         this.snackBar.open('Département supprimé avec succès', 'OK', { duration: 2000 });
-        this.load();
       },
       error: (err) => {
         const message = err.error?.message || 'Erreur lors de la suppression';
@@ -172,7 +230,6 @@ export class DepartmentListComponent implements OnInit {
             if (completed === total) {
               this.snackBar.open(`${total} département(s) supprimé(s)`, 'OK', { duration: 2000 });
               this.selection.clear();
-              this.load();
             }
           },
           error: (err) => {
@@ -185,31 +242,19 @@ export class DepartmentListComponent implements OnInit {
   }
 
   exportToCSV() {
-    const data = this.dataSource.filteredData;
-    if (data.length === 0) {
-      this.snackBar.open('Aucune donnée à exporter', 'OK', { duration: 2000 });
-      return;
-    }
-
-    const headers = ['ID', 'Nom', 'Description', 'Nombre d\'employés'];
-    const csv = [
-      headers.join(','),
-      ...data.map(dept => [
-        dept.id,
-        dept.name,
-        dept.description || '',
-        dept.employeeCount || 0
-      ].join(','))
-    ].join('\n');
-
-    const blob = new Blob([csv], { type: 'text/csv;charset=utf-8;' });
-    const link = document.createElement('a');
-    const url = URL.createObjectURL(blob);
-    link.setAttribute('href', url);
-    link.setAttribute('download', `departments_${new Date().getTime()}.csv`);
-    link.click();
-    URL.revokeObjectURL(url);
-    this.snackBar.open('Export réussi', 'OK', { duration: 2000 });
+    // The server streams the full table, so the export no longer depends on the rows loaded here
+    this.departmentService.export('csv').subscribe({
+      next: blob => {
+        const link = document.createElement('a');
+        const url = URL.createObjectURL(blob);
+        link.setAttribute('href', url);
+        link.setAttribute('download', `departments_${new Date().getTime()}.csv`);
+        link.click();
+        URL.revokeObjectURL(url);
+        this.snackBar.open('Export réussi', 'OK', { duration: 2000 });
+      },
+      error: () => this.snackBar.open('Erreur lors de l\'export', 'OK', { duration: 3000 })
+    });
   }
 
   refresh() {
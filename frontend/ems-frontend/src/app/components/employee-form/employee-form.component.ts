@@ -83,6 +83,26 @@ export class EmployeeFormComponent implements OnInit {
 
     // Load departments
     this.loadDepartments();
+
+    if (this.mode === 'edit') {
+      this.loadCurrent();
+    }
+  }
+
+  // Reads the current version so the update is sent with its ETag (If-Match)
+  loadCurrent(): void {
+    this.employeeService.getById(this.data.employee.id).subscribe({
+      next: (employee) => {
+        if (this.form.pristine) {
+          this.form.patchValue({
+            firstName: employee.firstName,
+            lastName: employee.lastName,
+            email: employee.email,
+            departmentId: employee.departmentId ?? null
+          });
+        }
+      }
+    });
   }
 
   loadDepartments(): void {
@@ -171,6 +191,16 @@ export class EmployeeFormComponent implements OnInit {
         },
         error: (err) => {
           this.loading = false;
+          if (err.status === 412) {
+            this.snackBar.open(
+              'Cet employé a été modifié par un autre utilisateur. Les valeurs actuelles ont été rechargées.',
+              'OK',
+              { duration: 5000, panelClass: ['error-snackbar'] }
+            );
+            this.form.markAsPristine();
+            this.loadCurrent();
+            return;
+          }
           this.snackBar.open(
             'Erreur lors de la modification: ' + (err.error?.message || 'Erreur inconnue'),
             'OK',
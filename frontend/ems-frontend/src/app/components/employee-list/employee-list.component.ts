@@ -1,9 +1,11 @@
-import { Component, OnInit, ViewChild } from '@angular/core';
+import { Component, DestroyRef, OnInit, ViewChild, inject } from '@angular/core';
+import { takeUntilDestroyed } from '@angular/core/rxjs-interop';
+import { EMPTY, Observable, Subject, catchError, debounceTime, distinctUntilChanged, map, switchMap } from 'rxjs';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { Router } from '@angular/router';
 import { EmployeeService } from '../../services/employee.service';
-import { Employee } from '../../models/employee';
+import { Employee, EmployeePage } from '../../models/employee';
 import { MatTableModule, MatTableDataSource } from '@angular/material/table';
 import { MatPaginatorModule, MatPaginator } from '@angular/material/paginator';
 import { MatSortModule, MatSort } from '@angular/material/sort';
@@ -21,6 +23,8 @@ import { EmployeeFormComponent } from '../employee-form/employee-form.component'
 import { SelectionModel } from '@angular/cdk/collections';
 import { HasRoleDirective } from '../../directives/has-role.directive';
 import { AuthService } from '../../services/auth.service';
+import { ChangeEventsService } from '../../services/change-events.service';
+import { ChangeEvent } from '../../models/change-event';
 
 @Component({
   selector: 'app-employee-list',
@@ -52,6 +56,12 @@ export class EmployeeListComponent implements OnInit {
   selection = new SelectionModel<Employee>(true, []);
   searchText = '';
   loading = false;
+  loadingMore = false;
+  nextCursor: string | null = null;
+  readonly pageSize = 100;
+  private searchTerms = new Subject<string>();
+  private reloads = new Subject<void>();
+  private destroyRef = inject(DestroyRef);
 
   @ViewChild(MatPaginator) paginator!: MatPaginator;
   @ViewChild(MatSort) sort!: MatSort;
@@ -61,13 +71,15 @@ export class EmployeeListComponent implements OnInit {
     private dialog: MatDialog,
     private snackBar: MatSnackBar,
     private router: Router,
-    private authService: AuthService
+    private authService: AuthService,
+    private changeEvents: ChangeEventsService
   ) {}
 
   ngOnInit(): void {
     this.setupColumns();
     this.load();
     this.setupFilter();
+    this.setupLiveUpdates();
   }
 
   setupColumns(): void {
@@ -78,24 +90,75 @@ export class EmployeeListComponent implements OnInit {
   }
 
   setupFilter(): void {
-    this.dataSource.filterPredicate = (data: Employee, filter: string) => {
-      const searchStr = filter.toLowerCase();
-      return (
-        data.firstName?.toLowerCase().includes(searchStr) ||
-        data.lastName?.toLowerCase().includes(searchStr) ||
-        data.email?.toLowerCase().includes(searchStr) ||
-        data.departmentName?.toLowerCase().includes(searchStr) ||
-        data.id?.toString().includes(searchStr) ||
-        false
-      );
-    };
+    // Search runs on the server index so it covers every employee, not only the loaded pages
+    this.searchTerms.pipe(
+      debounceTime(250),
+      distinctUntilChanged(),
+      switchMap((term): Observable<EmployeePage> => (term
+        ? this.employeeService.search(term).pipe(map(content => ({ content, size: content.length, nextCursor: null })))
+        : this.employeeService.getPage(null, this.pageSize)
+      ).pipe(catchError(() => {
+        this.snackBar.open('Erreur lors de la recherche', 'OK', { duration: 3000 });
+        return EMPTY;
+      }))),
+      takeUntilDestroyed(this.destroyRef)
+    ).subscribe((page) => {
+      this.dataSource.data = page.content;
+      this.nextCursor = page.nextCursor ?? null;
+      if (this.dataSource.paginator) {
+        this.dataSource.paginator.firstPage();
+      }
+    });
+  }
+
+  // Committed changes from any session are patched into the loaded rows instead of refetching the list
+  setupLiveUpdates(): void {
+    this.reloads.pipe(debounceTime(500), takeUntilDestroyed(this.destroyRef)).subscribe(() => this.load());
+    this.changeEvents.changes<Employee>('employee')
+      .pipe(takeUntilDestroyed(this.destroyRef))
+      .subscribe(event => this.applyChange(event));
+  }
+
+  private applyChange(event: ChangeEvent<Employee>): void {
+    const rows = this.dataSource.data;
+    const index = rows.findIndex(row => row.id === event.id);
+    switch (event.action) {
+      case 'created':
+        if (event.data && index < 0 && !this.searchText.trim() && this.fitsLoadedRange(event.data)) {
+          this.dataSource.data = [...rows, event.data].sort(compareEmployees);
+        }
+        break;
+      case 'updated':
+        if (event.data && index >= 0) {
+          const updated = [...rows];
+          updated[index] = event.data;
+          this.dataSource.data = updated;
+        }
+        break;
+      case 'deleted':
+        if (index >= 0) {
+          this.selection.deselect(rows[index]);
+          this.dataSource.data = rows.filter(row => row.id !== event.id);
+        }
+        break;
+      case 'invalidated':
+        if (!this.searchText.trim()) this.reloads.next();
+        break;
+    }
+  }
+
+  // A new employee past the last loaded row will come with a later page
+  private fitsLoadedRange(employee: Employee): boolean {
+    const rows = this.dataSource.data;
+    return !this.nextCursor || rows.length === 0 || compareEmployees(employee, rows[rows.length - 1]) < 0;
   }
 
   load(): void {
     this.loading = true;
-    this.employeeService.getAll().subscribe({
-      next: (list) => {
-        this.dataSource.data = list;
+    this.employeeService.getPage(null, this.pageSize).subscribe({
+      next: (page) => {
+        this.dataSource.data = page.content;
+        this.nextCursor = page.nextCursor ?? null;
         this.dataSource.paginator = this.paginator;
         this.dataSource.sort = this.sort;
         this.loading = false;
@@ -107,11 +170,24 @@ export class EmployeeListComponent implements OnInit {
     });
   }
 
+  loadMore(): void {
+    if (!this.nextCursor || this.loadingMore) return;
+    this.loadingMore = true;
+    this.employeeService.getPage(this.nextCursor, this.pageSize).subscribe({
+      next: (page) => {
+        this.dataSource.data = [...this.dataSource.data, ...page.content];
+        this.nextCursor = page.nextCursor ?? null;
+        this.loadingMore = false;
+      },
+      error: () => {
+        this.snackBar.open('Erreur: impossible de charger la suite', 'OK', { duration: 3000 });
+        this.loadingMore = false;
+      },
+    });
+  }
+
   applyFilter(): void {
-    this.dataSource.filter = this.searchText.trim();
-    if (this.dataSource.paginator) {
-      this.dataSource.paginator.firstPage();
-    }
+    this.searchTerms.next(this.searchText.trim());
   }
 
   clearSearch(): void {
@@ -126,13 +202,11 @@ export class EmployeeListComponent implements OnInit {
   }
 
   openCreate() {
-    const ref = this.dialog.open(EmployeeFormComponent, { width: '520px', data: { mode: 'create' } });
-    ref.afterClosed().subscribe((res) => { if (res) this.load(); });
+    this.dialog.open(EmployeeFormComponent, { width: '520px', data: { mode: 'create' } });
   }
 
   openEdit(employee: Employee) {
-    const ref = this.dialog.open(EmployeeFormComponent, { width: '520px', data: { mode: 'edit', employee } });
-    ref.afterClosed().subscribe((res) => { if (res) this.load(); });
+    this.dialog.open(EmployeeFormComponent, { width: '520px', data: { mode: 'edit', employee } });
   }
 
   deleteEmployee(id: number | undefined, event?: Event) {
@@ -142,7 +216,6 @@ export class EmployeeListComponent implements OnInit {
     this.employeeService.delete(id).subscribe({
       next: () => {
         this.snackBar.open('Employé supprimé avec succès', 'OK', { duration: 2000 });
-        this.load();
       },
       error: () => this.snackBar.open('Erreur lors de la suppression', 'OK', { duration: 3000 }),
     });
@@ -176,7 +249,6 @@ export class EmployeeListComponent implements OnInit {
             if (completed === total) {
               this.snackBar.open(`${total} employé(s) supprimé(s)`, 'OK', { duration: 2000 });
               this.selection.clear();
-              this.load();
             }
           },
           error: () => {
@@ -188,31 +260,19 @@ export class EmployeeListComponent implements OnInit {
   }
 
   exportToCSV() {
-    const data = this.dataSource.filteredData;
-    if (data.length === 0) {
-      this.snackBar.open('Aucune donnée à exporter', 'OK', { duration: 2000 });
-      return;
-    }
-
-    const headers = ['ID', 'Prénom', 'Nom', 'Email'];
-    const csv = [
-      headers.join(','),
-      ...data.map(emp => [
-        emp.id,
-        emp.firstName,
-        emp.lastName,
-        emp.email
-      ].join(','))
-    ].join('\n');
-
-    const blob = new Blob([csv], { type: 'text/csv;charset=utf-8;' });
-    const link = document.createElement('a');
-    const url = URL.createObjectURL(blob);
-    link.setAttribute('href', url);
-    link.setAttribute('download', `employees_${new Date().getTime()}.csv`);
-    link.click();
-    URL.revokeObjectURL(url);
-    this.snackBar.open('Export réussi', 'OK', { duration: 2000 });
+    // The server streams the full table, so the export no longer depends on the rows loaded here
+    this.employeeService.export('csv').subscribe({
+      next: blob => {
+        const link = document.createElement('a');
+        const url = URL.createObjectURL(blob);
+        link.setAttribute('href', url);
+        link.setAttribute('download', `employees_${new Date().getTime()}.csv`);
+        link.click();
+        URL.revokeObjectURL(url);
+        this.snackBar.open('Export réussi', 'OK', { duration: 2000 });
+      },
+      error: () => this.snackBar.open('Erreur lors de l\'export', 'OK', { duration: 3000 })
+    });
   }
 
   refresh() {
@@ -220,3 +280,9 @@ export class EmployeeListComponent implements OnInit {
     this.snackBar.open('Liste actualisée', 'OK', { duration: 1500 });
   }
 }
+
+// Same order as the server's keyset pages: last name, then id
+function compareEmployees(a: Employee, b: Employee): number {
+  const byName = (a.lastName ?? '').localeCompare(b.lastName ?? '');
+  return byName !== 0 ? byName : (a.id ?? 0) - (b.id ?? 0);
+}
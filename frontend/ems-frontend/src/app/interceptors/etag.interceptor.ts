@@ -0,0 +1,43 @@
+import { HttpInterceptorFn, HttpErrorResponse, HttpResponse } from '@angular/common/http';
+import { catchError, finalize, of, tap, throwError } from 'rxjs';
+
+// Last response per URL for resources the backend tags with an ETag.
+// A repeated GET sends If-None-Match and a 304 is answered from here, without a response body.
+// A PUT to the same URL sends that ETag as If-Match, so the server rejects it with 412 if someone else changed it.
+const validated = new Map<string, HttpResponse<unknown>>();
+
+export function clearEtagCache(): void {
+  validated.clear();
+}
+
+export const etagInterceptor: HttpInterceptorFn = (req, next) => {
+  if (req.method === 'PUT') {
+    const etag = validated.get(req.urlWithParams)?.headers.get('ETag');
+    const conditional = etag ? req.clone({ setHeaders: { 'If-Match': etag } }) : req;
+    // Whatever the outcome, the cached representation is no longer current
+    return next(conditional).pipe(finalize(() => validated.delete(req.urlWithParams)));
+  }
+  if (req.method !== 'GET' || req.responseType !== 'json') {
+    return next(req);
+  }
+
+  const key = req.urlWithParams;
+  const cached = validated.get(key);
+  const etag = cached?.headers.get('ETag');
+  const conditional = etag ? req.clone({ setHeaders: { 'If-None-Match': etag } }) : req;
+
+  return next(conditional).pipe(
+    tap(event => {
+      if (event instanceof HttpResponse) {
+        if (event.headers.has('ETag')) {
+          validated.set(key, event);
+        } else {
+          validated.delete(key);
+        }
+      }
+    }),
+    catchError((error: HttpErrorResponse) =>
+      error.status === 304 && cached ? of(cached.clone()) : throwError(() => error)
+    )
+  );
+};
@@ -0,0 +1,9 @@
+// A committed change pushed by the server on /api/events.
+// 'invalidated' means a bulk change happened (import, batch, reorganization) and lists should be reloaded.
+export interface ChangeEvent<T = unknown> {
+  entity: 'employee' | 'department' | 'user';
+  action: 'created' | 'updated' | 'deleted' | 'invalidated';
+  id?: number;
+  data?: T;
+  previousDepartmentId?: number;
+}
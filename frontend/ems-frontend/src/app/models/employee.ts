@@ -11,3 +11,9 @@ export interface Employee {
   password?: string;
   roles?: string[];
 }
+
+export interface EmployeePage {
+  content: Employee[];
+  size: number;
+  nextCursor?: string | null;
+}
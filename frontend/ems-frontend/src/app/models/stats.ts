@@ -0,0 +1,16 @@
+import { Employee } from './employee';
+
+export interface DepartmentStat {
+  id?: number;
+  name: string;
+  employeeCount: number;
+}
+
+export interface Stats {
+  totalEmployees: number;
+  departmentCount: number;
+  assignedEmployees: number;
+  unassignedEmployees: number;
+  departments: DepartmentStat[];
+  recentEmployees: Employee[];
+}
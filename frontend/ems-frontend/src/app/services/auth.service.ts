@@ -3,6 +3,7 @@ import { HttpClient } from '@angular/common/http';
 import { Observable, BehaviorSubject, tap } from 'rxjs';
 import { LoginRequest, JwtResponse } from '../models/user';
 import { Router } from '@angular/router';
+import { clearEtagCache } from '../interceptors/etag.interceptor';
 
 @Injectable({ providedIn: 'root' })
 export class AuthService {
@@ -31,6 +32,7 @@ export class AuthService {
   logout(): void {
     localStorage.removeItem('currentUser');
     localStorage.removeItem('token');
+    clearEtagCache();
     this.currentUserSubject.next(null);
     this.router.navigate(['/login']);
   }
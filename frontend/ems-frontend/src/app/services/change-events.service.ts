@@ -0,0 +1,80 @@
+import { Injectable } from '@angular/core';
+import { HttpClient, HttpDownloadProgressEvent, HttpEventType } from '@angular/common/http';
+import { Observable, defer, filter, mergeMap, repeat, retry, share, timer } from 'rxjs';
+import { ChangeEvent } from '../models/change-event';
+
+// Server-Sent Events from /api/events, shared by every list on screen.
+// EventSource cannot send the Authorization header, so the stream is read through HttpClient
+// (and the auth interceptor) as progressive text and split into SSE frames here.
+@Injectable({ providedIn: 'root' })
+export class ChangeEventsService {
+  private url = '/api/events';
+  private readonly reconnectDelayMs = 3000;
+  private readonly events$: Observable<ChangeEvent>;
+
+  constructor(private http: HttpClient) {
+    let connected = false;
+    this.events$ = defer(() => this.connect()).pipe(
+      mergeMap(frame => {
+        if (frame.name !== 'ready') {
+          return [JSON.parse(frame.data) as ChangeEvent];
+        }
+        // Changes may have been missed while reconnecting, so lists reload once
+        const reconnected = connected;
+        connected = true;
+        return reconnected
+          ? [{ entity: 'employee', action: 'invalidated' }, { entity: 'department', action: 'invalidated' }] as ChangeEvent[]
+          : [];
+      }),
+      retry({ delay: () => timer(this.reconnectDelayMs) }),
+      repeat({ delay: () => timer(this.reconnectDelayMs) }),
+      share()
+    );
+  }
+
+  changes<T>(entity: ChangeEvent['entity']): Observable<ChangeEvent<T>> {
+    return this.events$.pipe(filter((event): event is ChangeEvent<T> => event.entity === entity));
+  }
+
+  private connect(): Observable<{ name: string; data: string }> {
+    return new Observable(subscriber => {
+      let consumed = 0;
+      const request = this.http.get(this.url, {
+        observe: 'events',
+        reportProgress: true,
+        responseType: 'text',
+        headers: { Accept: 'text/event-stream' }
+      }).subscribe({
+        next: event => {
+          if (event.type !== HttpEventType.DownloadProgress) return;
+          const text = (event as HttpDownloadProgressEvent).partialText ?? '';
+          // Only complete frames (terminated by a blank line) are parsed
+          const end = text.lastIndexOf('\n\n');
+          if (end < consumed) return;
+          for (const block of text.substring(consumed, end).split('\n\n')) {
+            const frame = parseFrame(block);
+            if (frame) subscriber.next(frame);
+          }
+          consumed = end + 2;
+        },
+        error: err => subscriber.error(err),
+        complete: () => subscriber.complete()
+      });
+      return () => request.unsubscribe();
+    });
+  }
+}
+
+function parseFrame(block: string): { name: string; data: string } | null {
+  let name = 'message';
+  const data: string[] = [];
+  for (const line of block.split('\n')) {
+    if (line.startsWith('event:')) {
+      name = line.substring(6).trim();
+    } else if (line.startsWith('data:')) {
+      data.push(line.substring(5).replace(/^ /, ''));
+    }
+  }
+  // Comment-only frames are heartbeats
+  return data.length ? { name, data: data.join('\n') } : null;
+}
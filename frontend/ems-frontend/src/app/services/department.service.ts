@@ -1,5 +1,5 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import { Department } from '../models/department';
 
@@ -25,6 +25,12 @@ export class DepartmentService {
     return this.http.put<Department>(`${this.baseUrl}/${id}`, department);
   }
 
+  // Streamed server-side export of the whole table
+  export(format: 'csv' | 'ndjson' = 'csv'): Observable<Blob> {
+    const params = new HttpParams().set('format', format);
+    return this.http.get(`${this.baseUrl}/export`, { params, responseType: 'blob' });
+  }
+
   delete(id: number): Observable<void> {
     return this.http.delete<void>(`${this.baseUrl}/${id}`);
   }
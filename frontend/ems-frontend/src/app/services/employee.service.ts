@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Employee } from '../models/employee';
+import { Employee, EmployeePage } from '../models/employee';
 
 @Injectable({ providedIn: 'root' })
 export class EmployeeService {
@@ -14,6 +14,19 @@ export class EmployeeService {
     return this.http.get<Employee[]>(this.baseUrl);
   }
 
+  getPage(after?: string | null, size = 50): Observable<EmployeePage> {
+    let params = new HttpParams().set('size', size);
+    if (after) {
+      params = params.set('after', after);
+    }
+    return this.http.get<EmployeePage>(`${this.baseUrl}/page`, { params });
+  }
+
+  search(query: string, limit = 50): Observable<Employee[]> {
+    const params = new HttpParams().set('q', query).set('limit', limit);
+    return this.http.get<Employee[]>(`${this.baseUrl}/search`, { params });
+  }
+
   getById(id: number): Observable<Employee> {
     return this.http.get<Employee>(`${this.baseUrl}/${id}`);
   }
@@ -26,6 +39,12 @@ export class EmployeeService {
     return this.http.put<Employee>(`${this.baseUrl}/${id}`, employee);
   }
 
+  // Streamed server-side export of the whole table
+  export(format: 'csv' | 'ndjson' = 'csv'): Observable<Blob> {
+    const params = new HttpParams().set('format', format);
+    return this.http.get(`${this.baseUrl}/export`, { params, responseType: 'blob' });
+  }
+
   delete(id: number): Observable<any> {
     return this.http.delete(`${this.baseUrl}/${id}`, { responseType: 'text' });
   }
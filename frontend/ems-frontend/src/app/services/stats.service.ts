@@ -0,0 +1,15 @@
+import { Injectable } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { Stats } from '../models/stats';
+
+@Injectable({ providedIn: 'root' })
+export class StatsService {
+  private baseUrl = '/api/stats';
+
+  constructor(private http: HttpClient) {}
+
+  get(): Observable<Stats> {
+    return this.http.get<Stats>(this.baseUrl);
+  }
+}